@@ -0,0 +1,12 @@
+-- Migration một lần cho products.price: cột từng cho phép NULL, còn ddl-auto=update không thêm NOT NULL cho cột
+-- đã tồn tại. Phân trang keyset theo giá (GET /api/products/page?sort=price) cần giá khác NULL.
+-- Chạy tay trên DB primary trước khi deploy bản có Product.price nullable = false.
+
+-- 1. Liệt kê sản phẩm chưa có giá
+SELECT id, name FROM products WHERE price IS NULL;
+
+-- 2. Gán giá thật cho từng sản phẩm ở bước 1 (không tự đặt 0: sản phẩm sẽ hiện là miễn phí), ví dụ:
+-- UPDATE products SET price = 150000 WHERE id = 42;
+
+-- 3. Thêm ràng buộc; MySQL báo lỗi nếu vẫn còn dòng NULL
+ALTER TABLE products MODIFY price DECIMAL(38,2) NOT NULL;
@@ -0,0 +1,87 @@
+package com.flogin.benchmark;
+
+import com.flogin.entity.Category;
+import com.flogin.entity.Product;
+import com.flogin.mapper.CategoryMapperImpl;
+import com.flogin.mapper.ProductMapper;
+import com.flogin.mapper.ProductMapperImpl;
+import com.flogin.repository.CategoryRepository;
+import com.flogin.repository.ProductRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Dữ liệu mẫu và repository giả trong bộ nhớ cho benchmark, để chạy offline không cần MySQL.
+ */
+final class BenchmarkFixtures {
+    private BenchmarkFixtures() {
+    }
+
+    static List<Category> categories(int count) {
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Category category = new Category("Category " + i);
+            category.setId((long) i);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    static List<Product> products(int count, List<Category> categories) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product("Product " + i, BigDecimal.valueOf(i * 1000L, 2), i % 500,
+                    "Mô tả sản phẩm " + i, categories.get(i % categories.size()));
+            product.setId((long) i);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static ProductMapper productMapper() {
+        ProductMapperImpl mapper = new ProductMapperImpl();
+        ReflectionTestUtils.setField(mapper, "categoryMapper", new CategoryMapperImpl());
+        return mapper;
+    }
+
+    static ProductRepository productRepository(List<Product> products) {
+        return fake(ProductRepository.class, (method, args) -> switch (method.getName()) {
+            case "findAll", "findAllWithCategory" -> products;
+            case "findById", "findWithCategoryById" -> products.stream()
+                    .filter(product -> product.getId().equals(args[0])).findFirst();
+            case "count" -> (long) products.size();
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    static CategoryRepository categoryRepository(List<Category> categories) {
+        return fake(CategoryRepository.class, (method, args) -> switch (method.getName()) {
+            case "findAll" -> categories;
+            case "findById" -> categories.stream()
+                    .filter(category -> category.getId().equals(args[0])).findFirst();
+            case "count" -> (long) categories.size();
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T fake(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> self == args[0];
+                    case "hashCode" -> System.identityHashCode(self);
+                    default -> "Fake" + type.getSimpleName();
+                };
+            }
+            return handler.apply(method, Objects.requireNonNullElse(args, new Object[0]));
+        });
+        return type.cast(proxy);
+    }
+}
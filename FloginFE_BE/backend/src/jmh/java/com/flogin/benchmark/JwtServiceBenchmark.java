@@ -0,0 +1,80 @@
+package com.flogin.benchmark;
+
+import com.flogin.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh số token/giây: cách cũ (parse + verify 3 lần, dựng key từ chuỗi mỗi lần) với parseToken (1 lần).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+    static final String SECRET = "H3l1Y3dOqMvz71IGsTtRJo+z6ZJbBDezA1clo0uWpvmVa2TqZZIfWFlTCXAbA1XZ+ZkRX0GG1VoPZkAEXmNvNg==";
+
+    JwtService jwtService;
+    UserDetails userDetails;
+    String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = newJwtService();
+        userDetails = User.withUsername("admin123").password("").authorities(List.of()).build();
+        token = jwtService.generateToken(userDetails);
+    }
+
+    static JwtService newJwtService() {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "JWT_SECRET", SECRET);
+        ReflectionTestUtils.setField(service, "JWT_EXPIRATION", 3600L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public boolean legacyFilterAndValidate() {
+        // Filter lấy username, validateToken lấy lại username rồi expiration: 3 lần verify HS512
+        String username = legacyClaims(token).getSubject();
+        boolean sameUser = legacyClaims(token).getSubject().equals(username);
+        Date expiration = legacyClaims(token).getExpiration();
+        return sameUser && expiration.after(new Date());
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        JwtService.TokenClaims claims = jwtService.parseToken(token);
+        return claims.username().equals(userDetails.getUsername()) && claims.expiration().after(new Date());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,50 @@
+package com.flogin.benchmark;
+
+import com.flogin.Config.PasswordHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí BCrypt theo cost, để chọn app.security.bcrypt-strength.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+    @Param({"4", "8", "10", "12"})
+    int cost;
+
+    PasswordEncoder passwordEncoder;
+    String encoded;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new PasswordHash().passwordEncoder(cost);
+        encoded = passwordEncoder.encode("admin123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("admin123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("admin123", encoded);
+    }
+}
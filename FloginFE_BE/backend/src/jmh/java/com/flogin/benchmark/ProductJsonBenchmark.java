@@ -0,0 +1,51 @@
+package com.flogin.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.entity.Product;
+import com.flogin.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductJsonBenchmark {
+    @Param({"100", "10000"})
+    int size;
+
+    ObjectMapper objectMapper;
+    List<ProductResponseDTO> products;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        ProductMapper productMapper = BenchmarkFixtures.productMapper();
+        products = new ArrayList<>(size);
+        for (Product product : BenchmarkFixtures.products(size, BenchmarkFixtures.categories(20))) {
+            products.add(productMapper.toProductResponseDTO(product));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeProductList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
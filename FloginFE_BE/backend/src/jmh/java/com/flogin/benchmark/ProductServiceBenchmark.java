@@ -0,0 +1,73 @@
+package com.flogin.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.cache.InMemoryRemoteCacheClient;
+import com.flogin.cache.ProductReadCache;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.entity.Category;
+import com.flogin.mapper.CategoryMapperImpl;
+import com.flogin.service.CategoryCache;
+import com.flogin.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đường đọc của ProductService trên repository giả: cacheEnabled=false đo mapper + repository,
+ * cacheEnabled=true đo đường trúng near-cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+    @Param({"1000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean cacheEnabled;
+
+    ProductService productService;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Category> categories = BenchmarkFixtures.categories(20);
+        productService = new ProductService(
+                BenchmarkFixtures.productRepository(BenchmarkFixtures.products(size, categories)),
+                new CategoryCache(BenchmarkFixtures.categoryRepository(categories), 10000, 60000, meterRegistry),
+                new ProductReadCache(new InMemoryRemoteCacheClient(), objectMapper, cacheEnabled,
+                        60_000, 10000, 60, meterRegistry),
+                event -> {
+                },
+                new CategoryMapperImpl(),
+                BenchmarkFixtures.productMapper(),
+                objectMapper,
+                null);
+    }
+
+    @Benchmark
+    public List<ProductResponseDTO> getAllProduct() {
+        return productService.getAllProduct();
+    }
+
+    @Benchmark
+    public ProductResponseDTO getProduct() {
+        return productService.getProduct((long) (size / 2));
+    }
+}
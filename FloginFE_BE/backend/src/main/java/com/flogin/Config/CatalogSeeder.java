@@ -0,0 +1,54 @@
+package com.flogin.Config;
+
+import com.flogin.service.CategoryCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chỉ chạy với profile loadtest: sinh sẵn categories/products (app.loadtest.seed.*) bằng JDBC batch
+ * để load test offline có catalog cố định, lặp lại được giữa các commit.
+ */
+@Configuration
+@Profile("loadtest")
+public class CatalogSeeder {
+    private static final int CHUNK_SIZE = 1000;
+
+    @Bean
+    ApplicationRunner catalogSeedRunner(JdbcTemplate jdbcTemplate, CategoryCache categoryCache,
+                                        @Value("${app.loadtest.seed.categories:50}") int categoryCount,
+                                        @Value("${app.loadtest.seed.products:10000}") int productCount) {
+        return args -> {
+            Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+            if (existing != null && existing > 0) {
+                return;
+            }
+            List<Object[]> categories = new ArrayList<>(categoryCount);
+            for (int i = 1; i <= categoryCount; i++) {
+                categories.add(new Object[]{"Category " + i});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO categories (name) VALUES (?)", categories);
+            List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+
+            List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = 1; i <= productCount; i++) {
+                chunk.add(new Object[]{"Product " + i, BigDecimal.valueOf(1000L + i % 100000, 2), i % 1000,
+                        "Sản phẩm mẫu số " + i, categoryIds.get(i % categoryIds.size())});
+                if (chunk.size() == CHUNK_SIZE || i == productCount) {
+                    jdbcTemplate.batchUpdate(
+                            "INSERT INTO products (name, price, quantity, description, category_id) VALUES (?, ?, ?, ?, ?)",
+                            chunk);
+                    chunk.clear();
+                }
+            }
+            categoryCache.invalidate();
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.flogin.Config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Bật bằng app.datasource.routing.enabled=true. Thay DataSource mặc định của Spring Boot bằng DataSource định tuyến
+ * của ReadReplicaRouting; spring.datasource.* vẫn là primary, các pool replica dùng chung spring.datasource.hikari.*.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    ReadReplicaRouting readReplicaRouting(DataSourceProperties dataSourceProperties, DataSourceRoutingProperties routing,
+                                          Environment environment, MeterRegistry meterRegistry) {
+        return new ReadReplicaRouting(dataSourceProperties, routing, environment, meterRegistry);
+    }
+
+    @Bean
+    DataSource dataSource(ReadReplicaRouting readReplicaRouting) {
+        return readReplicaRouting.dataSource();
+    }
+}
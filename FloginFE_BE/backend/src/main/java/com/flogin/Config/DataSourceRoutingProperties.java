@@ -0,0 +1,24 @@
+package com.flogin.Config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * app.datasource.routing.*: danh sách replica cho transaction read-only, thời gian "dính" primary sau khi ghi
+ * (read-your-writes) và ngưỡng trễ replica. lag-query trả về số giây trễ (cột Seconds_Behind_Source hoặc cột đầu tiên);
+ * để trống thì chỉ kiểm tra kết nối.
+ */
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public record DataSourceRoutingProperties(boolean enabled, List<Replica> replicas, Duration stickiness,
+                                          int maxLagSeconds, Duration lagCheckInterval, String lagQuery) {
+    public DataSourceRoutingProperties {
+        replicas = replicas == null ? List.of() : replicas;
+        stickiness = stickiness == null ? Duration.ofSeconds(5) : stickiness;
+        lagCheckInterval = lagCheckInterval == null ? Duration.ofSeconds(2) : lagCheckInterval;
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.flogin.Config;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+    private final Long productId;
+
+    public InsufficientStockException(Long productId) {
+        super("Sản phẩm " + productId + " không đủ hàng hoặc không tồn tại");
+        this.productId = productId;
+    }
+}
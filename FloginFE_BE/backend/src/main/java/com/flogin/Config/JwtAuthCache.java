@@ -0,0 +1,106 @@
+package com.flogin.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache kết quả xác thực JWT theo SHA-256 của token: giữ principal + authorities đến khi token hết hạn
+ * (tối đa ttl-seconds), để mỗi request không phải verify chữ ký và query lại bảng users.
+ */
+@Component
+public class JwtAuthCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+    private final Clock clock;
+
+    @Autowired
+    public JwtAuthCache(@Value("${app.jwt.cache.max-size:10000}") int maxSize,
+                        @Value("${app.jwt.cache.ttl-seconds:300}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        this(maxSize, ttlSeconds, meterRegistry, Clock.systemUTC());
+    }
+
+    JwtAuthCache(int maxSize, long ttlSeconds, MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("auth.jwt.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("auth.jwt.cache").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gaugeMapSize("auth.jwt.cache.size", Tags.empty(), entries);
+    }
+
+    public UserDetails get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt <= clock.millis()) {
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal;
+    }
+
+    public UserDetails put(String token, UserDetails userDetails, Date tokenExpiration) {
+        UserDetails principal = new User(userDetails.getUsername(), "", userDetails.getAuthorities());
+        long now = clock.millis();
+        long expiresAt = tokenExpiration == null ? now + ttlMillis : Math.min(tokenExpiration.getTime(), now + ttlMillis);
+        if (expiresAt > now) {
+            if (entries.size() >= maxSize) {
+                evictExpired(now);
+            }
+            if (entries.size() < maxSize) {
+                entries.put(hash(token), new Entry(principal, expiresAt));
+            }
+        }
+        return principal;
+    }
+
+    public void evictUser(String username) {
+        entries.values().removeIf(entry -> entry.principal.getUsername().equals(username));
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        // Vẫn đầy thì bỏ bớt 1/10 để không phải quét lại ở mỗi lần put
+        Iterator<String> iterator = entries.keySet().iterator();
+        int toDrop = entries.size() >= maxSize ? Math.max(1, maxSize / 10) : 0;
+        while (toDrop-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(UserDetails principal, long expiresAt) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.flogin.Config;
 import com.flogin.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,13 +18,22 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
+    static final String EVENT_STREAM_PATH = "/products/events";
+    static final String STREAM_TOKEN_PARAM = "access_token";
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final JwtAuthCache jwtAuthCache;
+    private final Timer jwtParseTimer;
+    private final Timer userLookupTimer;
 
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService, JwtAuthCache jwtAuthCache,
+                         MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.jwtAuthCache = jwtAuthCache;
+        this.jwtParseTimer = Timer.builder("auth.jwt.parse").register(meterRegistry);
+        this.userLookupTimer = Timer.builder("auth.user.lookup").register(meterRegistry);
     }
 
     @Override
@@ -30,21 +41,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             String header = request.getHeader("Authorization");
 
-            if (header == null || !header.startsWith("Bearer ")) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            String token = header.substring(7);
-            String username = jwtService.getUsernameFromToken(token);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = null;
+                if (header != null && header.startsWith("Bearer ")) {
+                    userDetails = authenticateBearer(header.substring(7));
+                } else if (EVENT_STREAM_PATH.equals(request.getServletPath())
+                        && request.getParameter(STREAM_TOKEN_PARAM) != null) {
+                    // EventSource không gửi được header, chỉ endpoint SSE nhận token ngắn hạn qua query string
+                    userDetails = authenticateStreamToken(request.getParameter(STREAM_TOKEN_PARAM));
+                }
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken auth =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(auth);
+                    SecurityContextHolder.getContext().setAuthentication(auth);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}");
@@ -52,4 +64,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails authenticateBearer(String token) {
+        UserDetails userDetails = jwtAuthCache.get(token);
+        if (userDetails == null) {
+            JwtService.TokenClaims claims = jwtParseTimer.record(() -> jwtService.parseToken(token));
+            if (claims.scope() != null) {
+                // Token SSE không được dùng thay access token
+                return null;
+            }
+            UserDetails loaded = userLookupTimer.record(() -> userDetailsService.loadUserByUsername(claims.username()));
+            userDetails = jwtAuthCache.put(token, loaded, claims.expiration());
+        }
+        return userDetails;
+    }
+
+    private UserDetails authenticateStreamToken(String token) {
+        // Không đưa vào JwtAuthCache: token sống ngắn và chỉ dùng một lần khi mở kết nối
+        JwtService.TokenClaims claims = jwtParseTimer.record(() -> jwtService.parseToken(token));
+        if (!JwtService.EVENT_STREAM_SCOPE.equals(claims.scope())) {
+            return null;
+        }
+        return userLookupTimer.record(() -> userDetailsService.loadUserByUsername(claims.username()));
+    }
+}
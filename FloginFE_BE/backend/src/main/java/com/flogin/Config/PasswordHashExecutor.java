@@ -0,0 +1,72 @@
+package com.flogin.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool riêng, giới hạn số thread và độ dài hàng đợi cho BCrypt, để login/register không chiếm hết thread Tomcat.
+ * Khi hàng đợi đầy thì từ chối ngay bằng ServiceBusyException (503 + Retry-After) thay vì xếp hàng vô hạn.
+ */
+@Component
+public class PasswordHashExecutor implements DisposableBean {
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+    // Timer theo thao tác ("login", "register"), tạo một lần thay vì tra registry mỗi lần submit
+    private final Map<String, Timer> timers;
+    private final Counter rejected;
+
+    public PasswordHashExecutor(@Value("${app.security.hash-executor.threads:0}") int threads,
+                                @Value("${app.security.hash-executor.queue-capacity:100}") int queueCapacity,
+                                @Value("${app.security.hash-executor.retry-after-seconds:1}") int retryAfterSeconds,
+                                MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timers = Map.of(
+                "login", Timer.builder("auth.password.hash").tag("op", "login").register(meterRegistry),
+                "register", Timer.builder("auth.password.hash").tag("op", "register").register(meterRegistry));
+        this.rejected = Counter.builder("auth.password.hash.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = timers.get(operation);
+        if (timer == null) {
+            throw new IllegalArgumentException("Unknown password hash operation: " + operation);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Hệ thống đang bận, vui lòng thử lại sau", retryAfterSeconds);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,29 @@
+package com.flogin.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * products.price từng cho phép null và ddl-auto=update không thêm NOT NULL cho cột đã tồn tại. Khi khởi động chỉ
+ * đếm các dòng còn null và cảnh báo, không sửa dữ liệu: giá phải được gán tay bằng db/products_price_not_null.sql.
+ */
+@Configuration
+public class ProductPriceCheck {
+    private static final Logger log = LoggerFactory.getLogger(ProductPriceCheck.class);
+
+    @Bean
+    ApplicationRunner productPriceCheckRunner(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            Integer missing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE price IS NULL",
+                    Integer.class);
+            if (missing != null && missing > 0) {
+                log.warn("{} products have no price and cannot be paged by price; run db/products_price_not_null.sql",
+                        missing);
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.flogin.Config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Header X-Query-Count / X-Query-Time-Ms phải ghi trước khi body được serialize (response chưa commit)
+@RestControllerAdvice
+@ConditionalOnProperty(name = "app.query-trace.enabled", havingValue = "true")
+public class QueryCountResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryTracker.Stats stats = QueryTracker.current();
+        if (stats != null) {
+            response.getHeaders().set("X-Query-Count", String.valueOf(stats.getCount()));
+            response.getHeaders().set("X-Query-Time-Ms", String.valueOf(stats.getMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,30 @@
+package com.flogin.Config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(QueryTraceProperties.class)
+@ConditionalOnProperty(name = "app.query-trace.enabled", havingValue = "true")
+public class QueryTraceConfig {
+
+    @Bean
+    static BeanPostProcessor queryTracingDataSourcePostProcessor(Environment environment) {
+        long slowQueryMs = environment.getProperty("app.query-trace.slow-query-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryTracingDataSource)) {
+                    return new QueryTracingDataSource(dataSource, slowQueryMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
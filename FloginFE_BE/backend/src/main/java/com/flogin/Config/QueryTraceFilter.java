@@ -0,0 +1,64 @@
+package com.flogin.Config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mở QueryTracker cho mỗi request (trước cả security để tính luôn query xác thực), ghi metric số câu SQL
+ * và thời gian DB theo endpoint, và kiểm tra ngân sách query nếu có cấu hình.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.query-trace.enabled", havingValue = "true")
+public class QueryTraceFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryTraceFilter.class);
+
+    private final QueryTraceProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryTraceFilter(QueryTraceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        QueryTracker.Stats stats = QueryTracker.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryTracker.clear();
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+        DistributionSummary.builder("db.queries.per.request").tag("endpoint", endpoint)
+                .register(meterRegistry).record(stats.getCount());
+        Timer.builder("db.time.per.request").tag("endpoint", endpoint)
+                .register(meterRegistry).record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        Integer budget = properties.budgets().get(endpoint);
+        if (budget != null && stats.getCount() > budget) {
+            String message = endpoint + " chạy " + stats.getCount() + " câu SQL, vượt ngân sách " + budget;
+            if (properties.failOnBudget()) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.flogin.Config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * app.query-trace.*: ngưỡng log câu SQL chậm và ngân sách số câu SQL theo endpoint ("GET /products/{id}": 1).
+ * fail-on-budget=true (dùng trong test) thì vượt ngân sách sẽ ném lỗi thay vì chỉ log.
+ */
+@ConfigurationProperties(prefix = "app.query-trace")
+public record QueryTraceProperties(boolean enabled, long slowQueryMs, boolean failOnBudget, Map<String, Integer> budgets) {
+    public QueryTraceProperties {
+        budgets = budgets == null ? Map.of() : budgets;
+    }
+}
@@ -0,0 +1,102 @@
+package com.flogin.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Bọc Connection/Statement bằng proxy (kiểu datasource-proxy) để đo từng lần execute: cộng vào QueryTracker
+ * của request hiện tại và log câu SQL vượt slowQueryMs.
+ */
+public class QueryTracingDataSource extends DelegatingDataSource {
+    private static final Logger log = LoggerFactory.getLogger(QueryTracingDataSource.class);
+
+    private final long slowQueryNanos;
+
+    public QueryTracingDataSource(DataSource target, long slowQueryMs) {
+        super(target);
+        this.slowQueryNanos = slowQueryMs * 1_000_000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return traced(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return traced(super.getConnection(username, password));
+    }
+
+    private Connection traced(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return traced(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return traced(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement) {
+                return traced(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S traced(Class<S> type, S statement, String preparedSql) {
+        return proxy(type, statement, (method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                QueryTracker.record(elapsed);
+                if (elapsed >= slowQueryNanos) {
+                    String sql = preparedSql != null ? preparedSql : (args != null && args.length > 0 ? String.valueOf(args[0]) : "batch");
+                    log.warn("Slow query ({} ms): {}", elapsed / 1_000_000, sql);
+                }
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            // equals/hashCode/toString trả lời trên chính proxy, không chuyển xuống đối tượng JDBC thật
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> self == args[0];
+                    case "hashCode" -> System.identityHashCode(self);
+                    default -> "Traced[" + target + "]";
+                };
+            }
+            return handler.handle(method, args);
+        }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,51 @@
+package com.flogin.Config;
+
+/**
+ * Đếm số câu SQL và tổng thời gian DB của request hiện tại (theo thread). QueryTracingDataSource ghi vào,
+ * QueryTraceFilter mở/đóng theo từng HTTP request.
+ */
+public final class QueryTracker {
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private QueryTracker() {
+    }
+
+    public static Stats start() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    static void record(long nanos) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.count++;
+            stats.nanos += nanos;
+        }
+    }
+
+    public static final class Stats {
+        private int count;
+        private long nanos;
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getMillis() {
+            return nanos / 1_000_000;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.flogin.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Giới hạn tần suất bằng token bucket, chạy ngay sau JwtAuthFilter trong security chain.
+ * /auth/** (login/register, mỗi lần tốn một phép BCrypt) bị giới hạn theo IP và theo username trong body;
+ * các API còn lại theo JWT subject. Vượt giới hạn trả 429 kèm Retry-After và X-RateLimit-*.
+ * IP là request.getRemoteAddr(); sau load balancer cần server.forward-headers-strategy để đó là IP client thật.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final int MAX_AUTH_BODY_BYTES = 8 * 1024;
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TokenBucketRateLimiter authIpLimiter;
+    private final TokenBucketRateLimiter authUsernameLimiter;
+    private final TokenBucketRateLimiter apiLimiter;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.authIpLimiter = limiter("auth-ip", properties.authIp());
+        this.authUsernameLimiter = limiter("auth-username", properties.authUsername());
+        this.apiLimiter = limiter("api", properties.api());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled() || request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!request.getServletPath().startsWith("/auth/")) {
+            TokenBucketRateLimiter.Result result = acquire("api", apiLimiter, apiKey(request));
+            if (!result.allowed()) {
+                reject(response, result);
+                return;
+            }
+            writeHeaders(response, result);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenBucketRateLimiter.Result result = acquire("auth-ip", authIpLimiter, request.getRemoteAddr());
+        if (!result.allowed()) {
+            reject(response, result);
+            return;
+        }
+        HttpServletRequest forwarded = request;
+        if ("POST".equals(request.getMethod())) {
+            // Đọc tối đa MAX + 1 byte bất kể Content-Length (body chunked không có header này)
+            byte[] body = request.getInputStream().readNBytes(MAX_AUTH_BODY_BYTES + 1);
+            if (body.length > MAX_AUTH_BODY_BYTES) {
+                writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Dữ liệu gửi lên quá lớn");
+                return;
+            }
+            CachedBodyRequest cached = new CachedBodyRequest(request, body);
+            String username = username(cached.body);
+            if (username != null) {
+                TokenBucketRateLimiter.Result userResult =
+                        acquire("auth-username", authUsernameLimiter, username.toLowerCase(Locale.ROOT));
+                if (!userResult.allowed()) {
+                    reject(response, userResult);
+                    return;
+                }
+                if (userResult.remaining() < result.remaining()) {
+                    result = userResult;
+                }
+            }
+            forwarded = cached;
+        }
+        writeHeaders(response, result);
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private TokenBucketRateLimiter limiter(String policy, RateLimitProperties.Policy config) {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(config.capacity(), config.refillPerSecond(),
+                properties.maxKeys());
+        Gauge.builder("http.ratelimit.keys", limiter, TokenBucketRateLimiter::size).tag("policy", policy)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private TokenBucketRateLimiter.Result acquire(String policy, TokenBucketRateLimiter limiter, String key) {
+        TokenBucketRateLimiter.Result result = limiter.tryAcquire(key);
+        Counter.builder("http.ratelimit.requests").tag("policy", policy)
+                .tag("result", result.allowed() ? "allowed" : "throttled")
+                .register(meterRegistry).increment();
+        return result;
+    }
+
+    private static String apiKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "sub:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private String username(byte[] body) {
+        try {
+            String username = objectMapper.readTree(body).path("username").asText(null);
+            return username == null || username.isBlank() ? null : username;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, TokenBucketRateLimiter.Result result) {
+        response.setHeader("X-RateLimit-Limit", String.valueOf(result.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(result.remaining()));
+    }
+
+    private void reject(HttpServletResponse response, TokenBucketRateLimiter.Result result) throws IOException {
+        writeHeaders(response, result);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(result.retryAfterSeconds()));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Quá nhiều yêu cầu, vui lòng thử lại sau");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), Map.of("message", message));
+    }
+
+    // Body login/register đã bị đọc để lấy username nên phải phát lại cho controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Body đã nằm sẵn trong bộ nhớ: báo có dữ liệu rồi báo đọc xong ngay, không cần chờ container
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.flogin.Config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * app.rate-limit.*: mỗi policy là một token bucket (capacity = số request dồn tối đa, refill-per-second = tốc độ hồi).
+ * auth-ip và auth-username áp dụng cho /auth/** (chưa đăng nhập), api áp dụng cho các API còn lại theo JWT subject
+ * (hoặc IP nếu request không có token hợp lệ).
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(boolean enabled, int maxKeys, Policy authIp, Policy authUsername, Policy api) {
+    public RateLimitProperties {
+        maxKeys = maxKeys > 0 ? maxKeys : 100_000;
+        authIp = authIp == null ? new Policy(20, 1) : authIp;
+        authUsername = authUsername == null ? new Policy(5, 0.1) : authUsername;
+        api = api == null ? new Policy(100, 50) : api;
+    }
+
+    public record Policy(int capacity, double refillPerSecond) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.flogin.Config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Khi bật định tuyến đọc/ghi thì tắt spring.jpa.open-in-view: với open-in-view, EntityManager của request giữ
+ * connection lấy ở transaction đầu tiên, nên một lần đọc read-only (replica) trước đó sẽ kéo cả câu ghi sau
+ * sang replica. Cấu hình bật cả hai một cách tường minh thì dừng khởi động.
+ */
+public class ReadReplicaEnvironmentPostProcessor implements EnvironmentPostProcessor {
+    private static final String ROUTING_ENABLED = "app.datasource.routing.enabled";
+    private static final String OPEN_IN_VIEW = "spring.jpa.open-in-view";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty(ROUTING_ENABLED, Boolean.class, false)) {
+            return;
+        }
+        if (environment.getProperty(OPEN_IN_VIEW, Boolean.class, false)) {
+            throw new IllegalStateException(OPEN_IN_VIEW + "=true cannot be combined with " + ROUTING_ENABLED
+                    + "=true: writes after a read-only query in the same request would run on a replica");
+        }
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("readReplicaRouting", Map.of(OPEN_IN_VIEW, false)));
+    }
+}
@@ -0,0 +1,231 @@
+package com.flogin.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chia đọc/ghi: transaction read-only lấy connection từ replica (round-robin), còn lại đi primary.
+ * Dựa trên LazyConnectionDataSourceProxy: connection thật chỉ được lấy ở câu SQL đầu tiên, lúc đó cờ read-only
+ * của transaction đã được đặt. Sau khi một user ghi, các lần đọc của user đó đi primary trong khoảng stickiness
+ * (read-your-writes). Replica trễ quá max-lag-seconds hoặc không kết nối được thì bị loại đến lần kiểm tra sau.
+ */
+public class ReadReplicaRouting implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRouting.class);
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+    private static final int STICKY_PURGE_THRESHOLD = 10_000;
+
+    private final HikariDataSource primary;
+    private final List<ReplicaPool> replicas = new ArrayList<>();
+    private final long stickinessMillis;
+    private final int maxLagSeconds;
+    private final String lagQuery;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private final DataSource dataSource;
+
+    public ReadReplicaRouting(DataSourceProperties dataSourceProperties, DataSourceRoutingProperties routing,
+                              Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        this.primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        for (int i = 0; i < routing.replicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = routing.replicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.url());
+            pool.setUsername(replica.username());
+            pool.setPassword(replica.password());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pool.setInitializationFailTimeout(-1);
+            ReplicaPool replicaPool = new ReplicaPool(pool.getPoolName(), pool);
+            replicas.add(replicaPool);
+            Gauge.builder("db.replica.healthy", replicaPool, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replicaPool.name).register(meterRegistry);
+        }
+        this.stickinessMillis = routing.stickiness().toMillis();
+        this.maxLagSeconds = routing.maxLagSeconds();
+        this.lagQuery = routing.lagQuery();
+        this.primaryReads = Counter.builder("db.route.reads").tag("target", "primary").register(meterRegistry);
+        this.replicaReads = Counter.builder("db.route.reads").tag("target", "replica").register(meterRegistry);
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primary));
+        proxy.setReadOnlyDataSource(new ReplicaSelectingDataSource());
+        this.dataSource = proxy;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = routing.lagCheckInterval().toMillis();
+        // Lần kiểm tra đầu chạy nền: replica chưa kiểm tra thì chưa nhận đọc, nên khởi động không phải chờ replica
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public synchronized void checkReplicas() {
+        for (ReplicaPool replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                Long lag = lagSeconds(connection);
+                healthy = lag != null && lag <= maxLagSeconds;
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} is now {}", replica.name, healthy ? "in rotation" : "out of rotation");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private Long lagSeconds(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return connection.isValid(1) ? 0L : null;
+        }
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            long lag = rs.getLong(lagColumn(rs.getMetaData()));
+            // NULL: replication đang dừng
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+
+    private void markWrite() {
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastWriteAt.put(user, now);
+        if (lastWriteAt.size() > STICKY_PURGE_THRESHOLD) {
+            lastWriteAt.values().removeIf(at -> now - at > stickinessMillis);
+        }
+    }
+
+    private boolean isSticky() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long at = lastWriteAt.get(user);
+        return at != null && System.currentTimeMillis() - at <= stickinessMillis;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static final class ReplicaPool {
+        final String name;
+        final HikariDataSource pool;
+        volatile boolean healthy;
+
+        ReplicaPool(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+
+    // Connection ghi (không read-only) luôn lấy từ đây, nên đây là nơi ghi nhận "user vừa ghi"
+    private final class WriteTrackingDataSource extends DelegatingDataSource {
+        WriteTrackingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            markWrite();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            markWrite();
+            return super.getConnection(username, password);
+        }
+    }
+
+    private final class ReplicaSelectingDataSource extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!isSticky()) {
+                int size = replicas.size();
+                int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+                for (int i = 0; i < size; i++) {
+                    ReplicaPool replica = replicas.get((start + i) % size);
+                    if (replica.healthy) {
+                        replicaReads.increment();
+                        return replica.pool.getConnection();
+                    }
+                }
+            }
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.flogin.Config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket không khoá, cài theo GCRA: mỗi key chỉ giữ một AtomicLong là "thời điểm lý thuyết" bucket đầy lại
+ * (theoretical arrival time). Bucket đã đầy lại tương đương bucket mới nên có thể xoá mà không mất thông tin;
+ * đó là cách dọn key nhàn rỗi. Khi số key chạm max-keys thì bỏ thêm các bucket chỉ thiếu tối đa một token
+ * (key dùng một lần, đúng kiểu key do client rải ra), key đó mất tối đa một token nợ. Nếu vẫn đầy thì key mới
+ * dùng một trong OVERFLOW_SHARDS bucket tràn theo hash, để client rải key không làm nghẽn mọi key mới.
+ */
+public class TokenBucketRateLimiter {
+    private static final String OVERFLOW_KEY = "\u0000overflow-";
+    private static final int OVERFLOW_SHARDS = 64;
+    // Dọn khi đầy tốn O(số key), nên không chạy lại liên tục khi bảng đầy các bucket đang nợ nhiều
+    private static final long PRESSURE_SWEEP_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final AtomicLong lastPressureSweep = new AtomicLong(System.nanoTime() - PRESSURE_SWEEP_INTERVAL_NANOS);
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxKeys) {
+        this.capacity = capacity;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.maxKeys = maxKeys;
+        // Sau khoảng này mọi bucket không được dùng đều đã đầy lại
+        this.sweepIntervalNanos = Math.max(burstNanos, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public Result tryAcquire(String key) {
+        long now = System.nanoTime();
+        sweepIfDue(now);
+        AtomicLong bucket = bucket(key, now);
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            long wait = newTat - now - burstNanos;
+            if (wait > 0) {
+                return new Result(false, capacity, 0, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return new Result(true, capacity, (int) (-wait / intervalNanos), 0);
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            long last = lastPressureSweep.get();
+            if (now - last >= PRESSURE_SWEEP_INTERVAL_NANOS && lastPressureSweep.compareAndSet(last, now)) {
+                sweep(now + intervalNanos);
+            }
+            if (buckets.size() >= maxKeys) {
+                String shard = OVERFLOW_KEY + Math.floorMod(key.hashCode(), OVERFLOW_SHARDS);
+                return buckets.computeIfAbsent(shard, k -> new AtomicLong(now));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last >= sweepIntervalNanos && lastSweep.compareAndSet(last, now)) {
+            sweep(now);
+        }
+    }
+
+    // Bỏ các bucket có TAT <= threshold; threshold = now nghĩa là chỉ bỏ bucket đã đầy lại
+    private void sweep(long threshold) {
+        buckets.values().removeIf(bucket -> bucket.get() <= threshold);
+    }
+
+    public record Result(boolean allowed, int limit, int remaining, long retryAfterSeconds) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.flogin.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Bật bằng spring.threads.virtual.enabled=true: Spring Boot chạy request Tomcat trên virtual thread,
+ * còn pool Hikari được bọc bởi ConcurrencyLimitedDataSource để số truy cập DB đồng thời không vượt maximum-pool-size.
+ * Chỉ bọc HikariDataSource: DataSource khác (proxy định tuyến replica, DataSource tự tạo) không có kích thước pool
+ * để giới hạn theo. Đường Hikari + semaphore được kiểm tra không pin carrier thread trong
+ * ConcurrencyLimitedDataSourceTest (JFR jdk.VirtualThreadPinned); driver MySQL thì kiểm tra bằng
+ * -Djdk.tracePinnedThreads=short khi chạy profile loadtest với virtual thread, nhất là khi nâng Connector/J.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment,
+                                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        return new LimitingPostProcessor(environment, meterRegistry);
+    }
+
+    // Chạy trước các post-processor khác (vd. QueryTraceConfig) để bọc đúng pool Hikari, trước khi nó bị bọc tiếp
+    static final class LimitingPostProcessor implements BeanPostProcessor, Ordered {
+        private final Environment environment;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        LimitingPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.environment = environment;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource pool)) {
+                return bean;
+            }
+            int limit = environment.getProperty("app.db.concurrency-limit", Integer.class, pool.getMaximumPoolSize());
+            ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, limit,
+                    pool.getConnectionTimeout());
+            meterRegistry.ifAvailable(registry -> Gauge.builder("db.concurrency.available", limited,
+                    ConcurrencyLimitedDataSource::availablePermits).register(registry));
+            return limited;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.flogin.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+    // Khai báo một RemoteCacheClient khác (vd. bọc Redis) để thay thế bản giả lập này
+    @Bean
+    @ConditionalOnMissingBean(RemoteCacheClient.class)
+    public RemoteCacheClient remoteCacheClient() {
+        return new InMemoryRemoteCacheClient();
+    }
+}
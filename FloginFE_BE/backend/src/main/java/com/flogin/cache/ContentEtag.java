@@ -0,0 +1,24 @@
+package com.flogin.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * ETag mạnh tính từ chính nội dung response: mọi replica trả cùng byte thì cùng ETag, và ETag không bao giờ
+ * khớp với một body khác, nên 304 đúng kể cả khi ghi xảy ra ở replica khác.
+ */
+public final class ContentEtag {
+    private ContentEtag() {
+    }
+
+    public static String of(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.flogin.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.service.CategoryChangedEvent;
+import com.flogin.service.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache JSON đã encode (UTF-8) cho GET /products/{id} và GET /products: hit chỉ trả về mảng byte có sẵn để
+ * ByteArrayHttpMessageConverter ghi thẳng ra output stream, không map DTO và không chạy Jackson.
+ * Mảng byte của danh sách được ráp từ byte của từng product. Ghi product thì bỏ entry đó và danh sách;
+ * ghi category thì bỏ hết vì tên category nằm trong JSON của product. ETag (ContentEtag) được tính một lần
+ * cùng lúc encode và giữ kèm mảng byte. Event chỉ đến từ process này, nên mỗi entry còn hết hạn sau
+ * app.product-cache.near-ttl-ms (như near-cache của ProductReadCache): ghi ở replica khác hiện ra sau tối đa
+ * hai lần TTL đó (entry này cộng near-cache mà nó được nạp từ).
+ */
+@Component
+public class ProductJsonCache {
+    private static final Json EMPTY_LIST = Json.of(new byte[]{'[', ']'});
+
+    private final ObjectWriter productWriter;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+    private volatile Entry allProducts;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            @Value("${app.product-json-cache.enabled:true}") boolean enabled,
+                            @Value("${app.product-json-cache.max-size:10000}") int maxSize,
+                            @Value("${app.product-cache.near-ttl-ms:5000}") long ttlMillis,
+                            MeterRegistry meterRegistry) {
+        this(objectMapper, enabled, maxSize, ttlMillis, meterRegistry, Clock.systemUTC());
+    }
+
+    ProductJsonCache(ObjectMapper objectMapper, boolean enabled, int maxSize, long ttlMillis,
+                     MeterRegistry meterRegistry, Clock clock) {
+        this.productWriter = objectMapper.writerFor(ProductResponseDTO.class);
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.hits = Counter.builder("cache.product.json").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.product.json").tag("result", "miss").register(meterRegistry);
+    }
+
+    public Json getProduct(Long id, Supplier<ProductResponseDTO> loader) {
+        Json cached = enabled ? fresh(products.get(id)) : null;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        Json json = Json.of(encode(loader.get()));
+        store(id, json, loadedAt);
+        return json;
+    }
+
+    /**
+     * @return null khi loader trả null (giữ nguyên hành vi body rỗng của GET /products khi chưa có sản phẩm)
+     */
+    public Json getAllProducts(Supplier<List<ProductResponseDTO>> loader) {
+        Json cached = enabled ? fresh(allProducts) : null;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        List<ProductResponseDTO> list = loader.get();
+        if (list == null) {
+            return null;
+        }
+        byte[][] items = new byte[list.size()][];
+        int length = 2 + Math.max(0, list.size() - 1);
+        for (int i = 0; i < items.length; i++) {
+            ProductResponseDTO product = list.get(i);
+            items[i] = encode(product);
+            length += items[i].length;
+            store(product.getId(), Json.of(items[i]), loadedAt);
+        }
+        Json json = items.length == 0 ? EMPTY_LIST : Json.of(join(items, length));
+        if (enabled && generation.get() == loadedAt) {
+            allProducts = new Entry(json, clock.millis() + ttlMillis);
+        }
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.id() != null) {
+            products.remove(event.id());
+        }
+        allProducts = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+        products.clear();
+        allProducts = null;
+    }
+
+    private void store(Long id, Json json, long loadedAt) {
+        // Có ghi xen giữa lúc đang load thì không cache, tránh giữ JSON cũ
+        if (!enabled || id == null || generation.get() != loadedAt) {
+            return;
+        }
+        long now = clock.millis();
+        if (products.size() >= maxSize && !products.containsKey(id)) {
+            products.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (products.size() >= maxSize) {
+                return;
+            }
+        }
+        products.put(id, new Entry(json, now + ttlMillis));
+    }
+
+    private Json fresh(Entry entry) {
+        return entry != null && entry.expiresAt() > clock.millis() ? entry.json() : null;
+    }
+
+    private static byte[] join(byte[][] items, int length) {
+        byte[] json = new byte[length];
+        json[0] = '[';
+        int offset = 1;
+        for (int i = 0; i < items.length; i++) {
+            if (i > 0) {
+                json[offset++] = ',';
+            }
+            System.arraycopy(items[i], 0, json, offset, items[i].length);
+            offset += items[i].length;
+        }
+        json[offset] = ']';
+        return json;
+    }
+
+    public record Json(byte[] body, String etag) {
+        static Json of(byte[] body) {
+            return new Json(body, ContentEtag.of(body));
+        }
+    }
+
+    private record Entry(Json json, long expiresAt) {
+    }
+
+    private byte[] encode(ProductResponseDTO product) {
+        try {
+            return productWriter.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.flogin.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.dto.category.CategoryResponseDTO;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.service.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache hai tầng cho đọc product: near-cache trong process (TTL ngắn, giới hạn số entry) trước RemoteCacheClient.
+ * Miss thì chỉ một thread mỗi key được gọi loader (chống stampede), các thread khác chờ kết quả đó.
+ * Ghi thì evict cả hai tầng; near-cache của replica khác tự hết hạn sau near-ttl.
+ * DTO là @Data (mutable) nên near-cache giữ bản riêng và mỗi lần đọc trả về một bản sao: caller sửa kết quả
+ * không làm bẩn cache hay dữ liệu của request khác.
+ */
+@Component
+public class ProductReadCache {
+    private static final String ALL_KEY = "products:all";
+
+    private final RemoteCacheClient remoteCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long nearTtlMillis;
+    private final int nearMaxSize;
+    private final Duration remoteTtl;
+    private final JavaType productType;
+    private final JavaType listType;
+    private final Map<String, NearEntry> nearCache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter nearHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+    private final Clock clock;
+
+    @Autowired
+    public ProductReadCache(RemoteCacheClient remoteCache, ObjectMapper objectMapper,
+                            @Value("${app.product-cache.enabled:true}") boolean enabled,
+                            @Value("${app.product-cache.near-ttl-ms:5000}") long nearTtlMillis,
+                            @Value("${app.product-cache.near-max-size:10000}") int nearMaxSize,
+                            @Value("${app.product-cache.remote-ttl-seconds:60}") long remoteTtlSeconds,
+                            MeterRegistry meterRegistry) {
+        this(remoteCache, objectMapper, enabled, nearTtlMillis, nearMaxSize, remoteTtlSeconds, meterRegistry,
+                Clock.systemUTC());
+    }
+
+    ProductReadCache(RemoteCacheClient remoteCache, ObjectMapper objectMapper, boolean enabled, long nearTtlMillis,
+                     int nearMaxSize, long remoteTtlSeconds, MeterRegistry meterRegistry, Clock clock) {
+        this.remoteCache = remoteCache;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.nearTtlMillis = nearTtlMillis;
+        this.nearMaxSize = nearMaxSize;
+        this.remoteTtl = Duration.ofSeconds(remoteTtlSeconds);
+        this.productType = objectMapper.constructType(ProductResponseDTO.class);
+        this.listType = objectMapper.getTypeFactory().constructCollectionType(List.class, ProductResponseDTO.class);
+        this.nearHits = Counter.builder("cache.product").tag("result", "near-hit").register(meterRegistry);
+        this.remoteHits = Counter.builder("cache.product").tag("result", "remote-hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.product").tag("result", "miss").register(meterRegistry);
+        this.clock = clock;
+    }
+
+    public ProductResponseDTO getProduct(Long id, Supplier<ProductResponseDTO> loader) {
+        return get("product:" + id, productType, loader);
+    }
+
+    public List<ProductResponseDTO> getAllProducts(Supplier<List<ProductResponseDTO>> loader) {
+        return get(ALL_KEY, listType, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evictProduct(event.id());
+    }
+
+    public void evictProduct(Long id) {
+        generation.incrementAndGet();
+        if (id != null) {
+            evict("product:" + id);
+        }
+        evict(ALL_KEY);
+    }
+
+    private void evict(String key) {
+        nearCache.remove(key);
+        remoteCache.evict(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, JavaType type, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        NearEntry near = nearCache.get(key);
+        if (near != null && near.expiresAt > clock.millis()) {
+            nearHits.increment();
+            return copy((T) near.value);
+        }
+        String remote = remoteCache.get(key).orElse(null);
+        if (remote != null) {
+            remoteHits.increment();
+            T value = read(remote, type);
+            putNear(key, value);
+            return value;
+        }
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inflight.putIfAbsent(key, mine);
+        if (leader != null) {
+            try {
+                // Mọi thread chờ cùng nhận kết quả của leader: mỗi thread lấy bản sao riêng
+                return copy((T) leader.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        misses.increment();
+        try {
+            long loadedAt = generation.get();
+            T value = loader.get();
+            // Có ghi xen giữa lúc đang load thì không đưa dữ liệu có thể đã cũ vào cache
+            if (value != null && generation.get() == loadedAt) {
+                remoteCache.put(key, write(value), remoteTtl);
+                putNear(key, value);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    private void putNear(String key, Object value) {
+        if (nearCache.size() >= nearMaxSize) {
+            long now = clock.millis();
+            nearCache.values().removeIf(entry -> entry.expiresAt <= now);
+            if (nearCache.size() >= nearMaxSize) {
+                return;
+            }
+        }
+        nearCache.put(key, new NearEntry(copy(value), clock.millis() + nearTtlMillis));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T value) {
+        if (value instanceof ProductResponseDTO product) {
+            return (T) copyProduct(product);
+        }
+        if (value instanceof List<?> list) {
+            List<ProductResponseDTO> copies = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copies.add(copyProduct((ProductResponseDTO) item));
+            }
+            return (T) copies;
+        }
+        return value;
+    }
+
+    private static ProductResponseDTO copyProduct(ProductResponseDTO product) {
+        CategoryResponseDTO category = product.getCategory();
+        return new ProductResponseDTO(product.getId(), product.getProductName(), product.getPrice(),
+                product.getQuantity(), product.getDescription(),
+                category == null ? null : new CategoryResponseDTO(category.getName()));
+    }
+
+    private <T> T read(String json, JavaType type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record NearEntry(Object value, long expiresAt) {
+    }
+}
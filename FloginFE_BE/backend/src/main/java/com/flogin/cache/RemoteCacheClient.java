@@ -0,0 +1,16 @@
+package com.flogin.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Tầng cache dùng chung giữa các replica (Redis, Memcached...). Giá trị là chuỗi JSON để mọi bản cài đặt
+ * đều phải serialize như khi đi qua mạng.
+ */
+public interface RemoteCacheClient {
+    Optional<String> get(String key);
+
+    void put(String key, String value, Duration ttl);
+
+    void evict(String key);
+}
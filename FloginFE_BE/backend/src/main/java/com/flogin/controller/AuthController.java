@@ -15,6 +15,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 @RestController
@@ -22,12 +24,12 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     AuthService authService;
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid LoginRequestDTO loginRequestDTO) {
-        return ResponseEntity.ok(authService.login(loginRequestDTO));
+    public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody @Valid LoginRequestDTO loginRequestDTO) {
+        return authService.login(loginRequestDTO).thenApply(ResponseEntity::ok);
     }
     @PostMapping("/register")
-    public ResponseEntity<RegisterResponseDTO> register(@RequestBody @Valid RegisterRequestDTO registerRequestDTO) {
-        return ResponseEntity.ok(authService.register(registerRequestDTO));
+    public CompletableFuture<ResponseEntity<RegisterResponseDTO>> register(@RequestBody @Valid RegisterRequestDTO registerRequestDTO) {
+        return authService.register(registerRequestDTO).thenApply(ResponseEntity::ok);
     }
     @GetMapping("/profile")
     public ResponseEntity<UserResponseDTO> getProfile(Authentication authentication){
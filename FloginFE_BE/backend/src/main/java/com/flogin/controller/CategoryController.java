@@ -1,5 +1,8 @@
 package com.flogin.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.cache.ContentEtag;
 import com.flogin.dto.category.CategoryRequestDTO;
 import com.flogin.dto.category.CategoryResponseDTO;
 import com.flogin.entity.Category;
@@ -7,10 +10,12 @@ import com.flogin.service.CategoryService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Optional;
 
 @RequestMapping("/categories")
@@ -19,6 +24,7 @@ import java.util.Optional;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class CategoryController {
     CategoryService categoryService;
+    ObjectMapper objectMapper;
     @PostMapping
     public ResponseEntity<Category> createCategory(@RequestBody CategoryRequestDTO categoryRequestDTO) {
         return ResponseEntity.ok(categoryService.createCategory(categoryRequestDTO));
@@ -28,12 +34,21 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return ResponseEntity.ok("Category với id " + id + " đã xóa thành công");
     }
-    @GetMapping()
-    public ResponseEntity<List<Category>> getAllCategory(){
-        return ResponseEntity.ok(categoryService.getAllCategory());
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllCategory(WebRequest request) throws JsonProcessingException {
+        return conditional(objectMapper.writeValueAsBytes(categoryService.getAllCategory()), request);
     }
-    @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategory(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategory(id));
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getCategory(@PathVariable Long id, WebRequest request) throws JsonProcessingException {
+        return conditional(objectMapper.writeValueAsBytes(categoryService.getCategory(id)), request);
+    }
+    private ResponseEntity<byte[]> conditional(byte[] body, WebRequest request) {
+        String etag = ContentEtag.of(body);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
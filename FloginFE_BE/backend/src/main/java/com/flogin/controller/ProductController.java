@@ -1,17 +1,40 @@
 package com.flogin.controller;
 
+import com.flogin.cache.ProductJsonCache;
+import com.flogin.dto.product.EventStreamTokenDTO;
+import com.flogin.dto.product.ProductBatchItemRequestDTO;
+import com.flogin.dto.product.ProductBatchItemResultDTO;
+import com.flogin.dto.product.ProductPageResponseDTO;
 import com.flogin.dto.product.ProductRequestDTO;
 import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.dto.product.ProductSearchResponseDTO;
+import com.flogin.dto.product.ProductSummaryDTO;
+import com.flogin.dto.product.QuantityDeltaDTO;
+import com.flogin.dto.product.StockReservationItemDTO;
 import com.flogin.entity.Product;
+import com.flogin.service.CatalogEventStream;
+import com.flogin.service.JwtService;
+import com.flogin.service.ProductBatchService;
+import com.flogin.service.ProductQuantityWriteBehind;
+import com.flogin.service.ProductSearchIndex;
 import com.flogin.service.ProductService;
+import com.flogin.service.ProductStockService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RequestMapping("/products")
@@ -20,21 +43,97 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ProductController {
     ProductService productService;
+    ProductBatchService productBatchService;
+    ProductStockService productStockService;
+    ProductQuantityWriteBehind productQuantityWriteBehind;
+    ProductJsonCache productJsonCache;
+    CatalogEventStream catalogEventStream;
+    ProductSearchIndex productSearchIndex;
+    JwtService jwtService;
     @PostMapping
     public ResponseEntity<ProductResponseDTO> createProduct(@RequestBody @Valid ProductRequestDTO productRequestDTO) {
         return ResponseEntity.ok(productService.createProduct(productRequestDTO));
     }
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductBatchItemResultDTO>> saveProducts(@RequestBody List<ProductBatchItemRequestDTO> items) {
+        return ResponseEntity.ok(productBatchService.saveAll(items));
+    }
+    @PostMapping("/stock/reservations")
+    public ResponseEntity<List<ProductResponseDTO>> reserveStock(@RequestBody List<StockReservationItemDTO> items) {
+        return ResponseEntity.ok(productStockService.reserve(items));
+    }
+    @PatchMapping("/{id}/quantity")
+    public ResponseEntity<ProductResponseDTO> adjustQuantity(@PathVariable Long id, @RequestBody @Valid QuantityDeltaDTO quantityDeltaDTO) {
+        ProductResponseDTO product = productQuantityWriteBehind.adjust(id, quantityDeltaDTO.getDelta());
+        // Ở chế độ write-behind delta mới vào bộ đệm, chưa có trạng thái mới để trả về
+        return product == null ? ResponseEntity.accepted().build() : ResponseEntity.ok(product);
+    }
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> updateProduct(@RequestBody @Valid ProductRequestDTO productRequestDTO, @PathVariable Long id) {
         return ResponseEntity.ok(productService.updateProduct(id, productRequestDTO));
     }
-    @GetMapping()
-    public ResponseEntity<List<ProductResponseDTO>> getAllProduct(){
-        return ResponseEntity.ok(productService.getAllProduct());
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllProduct(WebRequest request){
+        ProductJsonCache.Json json = productJsonCache.getAllProducts(productService::getAllProduct);
+        if (json == null) {
+            return ResponseEntity.ok().build();
+        }
+        if (request.checkNotModified(json.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(json.etag()).cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.body());
+    }
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageResponseDTO> getProductPage(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size,
+                                                                 @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(productService.getProductPage(cursor, size, sort));
+    }
+    @GetMapping("/filter")
+    public ResponseEntity<List<ProductSummaryDTO>> filterProducts(@RequestParam(required = false) Long categoryId,
+                                                                  @RequestParam(required = false) BigDecimal minPrice,
+                                                                  @RequestParam(required = false) BigDecimal maxPrice,
+                                                                  @RequestParam(defaultValue = "false") boolean inStock,
+                                                                  @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productService.filterProducts(categoryId, minPrice, maxPrice, inStock, size));
+    }
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponseDTO> searchProducts(@RequestParam(required = false) String q,
+                                                                   @RequestParam(required = false) String category,
+                                                                   @RequestParam(required = false) BigDecimal minPrice,
+                                                                   @RequestParam(required = false) BigDecimal maxPrice,
+                                                                   @RequestParam(required = false) Integer minQuantity,
+                                                                   @RequestParam(required = false) Integer maxQuantity,
+                                                                   @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productSearchIndex.search(q, category, minPrice, maxPrice, minQuantity, maxQuantity, size));
+    }
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                   @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        // EventSource tự gửi Last-Event-ID khi tự kết nối lại; query param dùng khi client mở kết nối mới
+        return catalogEventStream.subscribe(lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+    @PostMapping("/events/token")
+    public ResponseEntity<EventStreamTokenDTO> createEventStreamToken(Authentication authentication) {
+        return ResponseEntity.ok(jwtService.generateEventStreamToken(authentication.getName()));
+    }
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportProducts(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        productService.exportProducts(response.getOutputStream());
     }
-    @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDTO> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProduct(id));
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProduct(@PathVariable Long id, WebRequest request) {
+        ProductJsonCache.Json json = productJsonCache.getProduct(id, () -> productService.getProduct(id));
+        if (request.checkNotModified(json.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(json.etag()).cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.body());
     }
     @DeleteMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> deleteProduct(@PathVariable Long id) {
@@ -2,9 +2,11 @@ package com.flogin.dto.category;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class CategoryResponseDTO {
     private String name;
 }
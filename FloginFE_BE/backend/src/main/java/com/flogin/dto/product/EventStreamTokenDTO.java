@@ -0,0 +1,12 @@
+package com.flogin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Token ngắn hạn để mở GET /products/events?access_token=...
+@Data
+@AllArgsConstructor
+public class EventStreamTokenDTO {
+    private String accessToken;
+    private long expiresInSeconds;
+}
@@ -0,0 +1,11 @@
+package com.flogin.dto.product;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ProductBatchItemRequestDTO extends ProductRequestDTO {
+    // null = tạo mới, có id = cập nhật
+    private Long id;
+}
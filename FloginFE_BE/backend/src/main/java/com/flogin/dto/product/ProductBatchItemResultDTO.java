@@ -0,0 +1,13 @@
+package com.flogin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductBatchItemResultDTO {
+    private int index;
+    private Long id;
+    private String status;
+    private String message;
+}
@@ -0,0 +1,14 @@
+package com.flogin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductPageResponseDTO {
+    private List<ProductResponseDTO> items;
+    private String nextCursor;
+    private boolean hasNext;
+}
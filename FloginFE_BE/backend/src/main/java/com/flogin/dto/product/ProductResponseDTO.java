@@ -3,11 +3,13 @@ package com.flogin.dto.product;
 import com.flogin.dto.category.CategoryResponseDTO;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class ProductResponseDTO {
     private Long id;
     private String productName;
@@ -0,0 +1,16 @@
+package com.flogin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ProductSearchResponseDTO {
+    private List<ProductResponseDTO> items;
+    private long total;
+    // Số sản phẩm khớp theo từng category (chưa áp dụng bộ lọc category)
+    private Map<String, Long> categoryFacets;
+}
@@ -0,0 +1,19 @@
+package com.flogin.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Projection cho /products/filter: chỉ đọc các cột cần thiết, không nạp entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSummaryDTO {
+    private Long id;
+    private String productName;
+    private BigDecimal price;
+    private int quantity;
+    private String categoryName;
+}
@@ -0,0 +1,18 @@
+package com.flogin.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuantityDeltaDTO {
+    @NotNull(message = "Delta không được để trống")
+    @Min(value = -99999, message = "Delta tối thiểu là -99,999")
+    @Max(value = 99999, message = "Delta tối đa là 99,999")
+    private Integer delta;
+}
@@ -0,0 +1,20 @@
+package com.flogin.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationItemDTO {
+    @NotNull(message = "Phải chọn sản phẩm")
+    private Long productId;
+
+    @Min(value = 1, message = "Số lượng giữ hàng phải lớn hơn 0")
+    @Max(value = 99999, message = "Số lượng tối đa không quá 99,999")
+    private int quantity;
+}
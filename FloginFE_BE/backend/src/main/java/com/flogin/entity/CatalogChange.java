@@ -0,0 +1,29 @@
+package com.flogin.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+// Outbox của luồng SSE /products/events: mọi instance ghi thay đổi vào đây và đọc lại theo id tăng dần
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "catalog_changes", indexes = {
+        // Dọn các dòng quá hạn giữ lại
+        @Index(name = "idx_catalog_changes_created_at", columnList = "created_at")
+})
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CatalogChange extends BaseEntity {
+    // "product" hoặc "category", dùng làm tên event SSE
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    // Epoch millis
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+}
@@ -11,13 +11,19 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Lọc theo category + khoảng giá, sắp xếp theo giá
+        @Index(name = "idx_products_category_price", columnList = "category_id, price, quantity"),
+        // Lọc theo khoảng giá khi không chọn category
+        @Index(name = "idx_products_price", columnList = "price, quantity")
+})
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Product extends BaseEntity {
     @Column(nullable = false)
     private String name;
 
-    @Column
+    // Khoá sắp xếp của phân trang keyset (ProductCursor) nên không được null; DB cũ: db/products_price_not_null.sql
+    @Column(nullable = false)
     private BigDecimal price = BigDecimal.ZERO;
 
     @Column
@@ -1,7 +1,61 @@
 package com.flogin.repository;
 
+import com.flogin.dto.product.ProductSummaryDTO;
 import com.flogin.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Các truy vấn đọc khai báo ở đây mặc định không có transaction; readOnly để chúng được định tuyến sang replica
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStreamingRepository {
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p")
+    List<Product> findAllWithCategory();
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findWithCategoryById(Long id);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllByIdIn(Collection<Long> ids);
+
+    // Keyset scroll: Spring Data tự thêm id vào cuối sort nên cursor luôn xác định duy nhất một dòng
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Dùng idx_products_category_price (category_id, price, quantity): lọc và sắp xếp ngay trên index, quantity có
+    // trong index nên dòng hết hàng bị loại mà không đọc bảng; dòng thoả điều kiện vẫn đọc bảng để lấy p.name và c.name
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.flogin.dto.product.ProductSummaryDTO(p.id, p.name, p.price, p.quantity, c.name)
+            from Product p join p.category c
+            where p.category.id = :categoryId and p.price between :minPrice and :maxPrice and p.quantity >= :minQuantity
+            order by p.price, p.id
+            """)
+    List<ProductSummaryDTO> findSummariesByCategory(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                    int minQuantity, Limit limit);
+
+    // Dùng idx_products_price (price, quantity), cũng đọc bảng cho các dòng thoả điều kiện như trên
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.flogin.dto.product.ProductSummaryDTO(p.id, p.name, p.price, p.quantity, c.name)
+            from Product p join p.category c
+            where p.price between :minPrice and :maxPrice and p.quantity >= :minQuantity
+            order by p.price, p.id
+            """)
+    List<ProductSummaryDTO> findSummaries(BigDecimal minPrice, BigDecimal maxPrice, int minQuantity, Limit limit);
 }
@@ -0,0 +1,10 @@
+package com.flogin.repository;
+
+import com.flogin.entity.Product;
+
+import java.util.stream.Stream;
+
+public interface ProductStreamingRepository {
+    // Phải gọi trong transaction và đóng Stream sau khi dùng
+    Stream<Product> streamAllBy();
+}
@@ -0,0 +1,54 @@
+package com.flogin.repository;
+
+import com.flogin.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Fetch size cho truy vấn streaming phụ thuộc driver: MySQL Connector/J chỉ stream từng dòng khi fetch size là
+ * Integer.MIN_VALUE (giá trị mà H2 và các driver khác từ chối), các driver còn lại dùng fetch size dương.
+ */
+public class ProductStreamingRepositoryImpl implements ProductStreamingRepository {
+    private static final String STREAM_ALL = "select p from Product p join fetch p.category order by p.id";
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+    private volatile Integer resolvedFetchSize;
+
+    public ProductStreamingRepositoryImpl(EntityManager entityManager,
+                                          @Value("${app.streaming.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<Product> streamAllBy() {
+        return entityManager.createQuery(STREAM_ALL, Product.class)
+                .setHint(HINT_FETCH_SIZE, fetchSize())
+                .setHint(HINT_READ_ONLY, true)
+                .setHint(HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+
+    int fetchSize() {
+        Integer size = resolvedFetchSize;
+        if (size == null) {
+            Dialect dialect = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect();
+            size = dialect instanceof MySQLDialect ? Integer.MIN_VALUE : fetchSize;
+            resolvedFetchSize = size;
+        }
+        return size;
+    }
+}
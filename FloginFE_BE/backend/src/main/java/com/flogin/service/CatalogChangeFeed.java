@@ -0,0 +1,264 @@
+package com.flogin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nguồn event cho CatalogEventStream, dùng chung giữa các instance qua bảng catalog_changes (outbox).
+ * Thay đổi product/category (sau commit) được xếp hàng và ghi xuống bảng theo batch mỗi poll-interval-ms; cùng nhịp
+ * đó mọi instance đọc các dòng có id lớn hơn watermark của mình và phát theo thứ tự id, nên client nhận cùng một
+ * chuỗi event và Last-Event-ID dùng được ở bất kỳ instance nào. Dòng nằm sau một khoảng trống id (transaction của
+ * instance khác chưa commit) được giữ lại tới khi khoảng trống được lấp hoặc quá gap-timeout-ms; vì vậy id của bảng
+ * phải liên tiếp (MySQL auto_increment_increment=1), nếu không mỗi khoảng trống làm chậm event thêm gap-timeout-ms.
+ * Nếu process chết đột ngột thì mất phần chưa ghi xuống (tối đa một poll-interval-ms); dòng cũ hơn retention-ms bị xoá.
+ * Dòng category đọc được cũng làm mới CategoryCache, để thay đổi category trên instance khác có hiệu lực ở đây.
+ */
+@Component
+public class CatalogChangeFeed implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeFeed.class);
+    private static final String INSERT_SQL = "INSERT INTO catalog_changes (event_type, payload, created_at) VALUES (?, ?, ?)";
+    private static final String POLL_SQL = "SELECT id, event_type, payload FROM catalog_changes WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String RECENT_SQL = "SELECT id, event_type, payload FROM catalog_changes ORDER BY id DESC LIMIT ?";
+    private static final String MAX_ID_SQL = "SELECT MAX(id) FROM catalog_changes";
+    // Luôn giữ dòng mới nhất để instance khởi động sau biết id đã tới đâu
+    private static final String CLEANUP_SQL = "DELETE FROM catalog_changes WHERE created_at < ? AND id < ?";
+    private static final RowMapper<Change> ROW_MAPPER = (rs, rowNum) ->
+            new Change(rs.getLong("id"), rs.getString("event_type"), rs.getString("payload"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CatalogEventStream eventStream;
+    private final CategoryCache categoryCache;
+    private final int bufferSize;
+    private final long pollIntervalMillis;
+    private final long gapTimeoutMillis;
+    private final long retentionMillis;
+    private final int pollBatchSize;
+    private final int maxPending;
+    private final ConcurrentLinkedDeque<PendingChange> pending = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Counter dropped;
+    private final Counter skippedGaps;
+    private ScheduledExecutorService scheduler;
+    // Chỉ đọc/ghi trên thread poll (tick được đồng bộ); -1 khi chưa đọc được trạng thái bảng
+    private long watermark = -1;
+    private long gapSince = -1;
+
+    public CatalogChangeFeed(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                             CatalogEventStream eventStream, CategoryCache categoryCache,
+                             @Value("${app.catalog-events.buffer-size:1024}") int bufferSize,
+                             @Value("${app.catalog-events.poll-interval-ms:250}") long pollIntervalMillis,
+                             @Value("${app.catalog-events.gap-timeout-ms:5000}") long gapTimeoutMillis,
+                             @Value("${app.catalog-events.retention-ms:3600000}") long retentionMillis,
+                             @Value("${app.catalog-events.poll-batch-size:500}") int pollBatchSize,
+                             @Value("${app.catalog-events.max-pending:10000}") int maxPending,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.eventStream = eventStream;
+        this.categoryCache = categoryCache;
+        this.bufferSize = bufferSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.retentionMillis = retentionMillis;
+        this.pollBatchSize = pollBatchSize;
+        this.maxPending = maxPending;
+        this.dropped = Counter.builder("catalog.events.dropped").register(meterRegistry);
+        this.skippedGaps = Counter.builder("catalog.events.gaps.skipped").register(meterRegistry);
+        Gauge.builder("catalog.events.pending", pendingCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        if (retentionMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::cleanup, retentionMillis, Math.max(retentionMillis / 10, 1000),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("action", event.type());
+        payload.put("id", event.id());
+        payload.put("product", event.product());
+        enqueue("product", payload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("action", event.type());
+        payload.put("id", event.id());
+        payload.put("name", event.name());
+        enqueue("category", payload);
+    }
+
+    synchronized void tick() {
+        try {
+            flush();
+            if (watermark < 0) {
+                load();
+            } else {
+                deliver(jdbcTemplate.query(POLL_SQL, ROW_MAPPER, watermark, pollBatchSize), System.currentTimeMillis());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Catalog change feed poll failed, retrying in {} ms", pollIntervalMillis, e);
+        }
+    }
+
+    private void enqueue(String type, Map<String, Object> payload) {
+        // Serialize ngay: DTO có thể bị sửa sau khi event được phát
+        String data = write(payload);
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            log.warn("Catalog change queue is full, dropping {} event", type);
+            return;
+        }
+        pending.addLast(new PendingChange(type, data, System.currentTimeMillis()));
+    }
+
+    void flush() {
+        List<PendingChange> batch = new ArrayList<>();
+        PendingChange change;
+        while ((change = pending.pollFirst()) != null) {
+            batch.add(change);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(),
+                    (ps, row) -> {
+                        ps.setString(1, row.type());
+                        ps.setString(2, row.payload());
+                        ps.setLong(3, row.createdAt());
+                    }));
+            pendingCount.addAndGet(-batch.size());
+        } catch (RuntimeException e) {
+            // Đưa lại lên đầu hàng đợi theo đúng thứ tự, ghi lại ở lần sau
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pending.addFirst(batch.get(i));
+            }
+            throw e;
+        }
+    }
+
+    // Nạp các dòng gần nhất vào buffer để client nối lại được ngay sau khi instance khởi động
+    private void load() {
+        List<Change> recent = new ArrayList<>(jdbcTemplate.query(RECENT_SQL, ROW_MAPPER, bufferSize));
+        Collections.reverse(recent);
+        long start = recent.isEmpty() ? 0 : recent.get(0).id() - 1;
+        eventStream.open(start);
+        watermark = start;
+        for (Change row : recent) {
+            eventStream.publish(row.id(), row.type(), row.payload());
+            watermark = row.id();
+        }
+    }
+
+    /**
+     * Phát các dòng liên tiếp sau watermark theo thứ tự id. Gặp khoảng trống thì dừng, giữ phần còn lại cho lần poll
+     * sau; khoảng trống tồn tại quá gap-timeout-ms (id bị rollback không bao giờ xuất hiện) thì bỏ qua.
+     */
+    void deliver(List<Change> rows, long now) {
+        for (Change row : rows) {
+            if (row.id() <= watermark) {
+                continue;
+            }
+            if (row.id() != watermark + 1) {
+                if (gapSince < 0) {
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMillis) {
+                    return;
+                }
+                skippedGaps.increment();
+            }
+            if ("category".equals(row.type())) {
+                categoryCache.invalidate();
+            }
+            eventStream.publish(row.id(), row.type(), row.payload());
+            watermark = row.id();
+            gapSince = -1;
+        }
+    }
+
+    void cleanup() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+            if (maxId != null) {
+                int deleted = jdbcTemplate.update(CLEANUP_SQL, System.currentTimeMillis() - retentionMillis, maxId);
+                log.debug("Removed {} expired catalog changes", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Catalog change cleanup failed", e);
+        }
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        // Tắt bình thường thì ghi nốt phần đang chờ
+        synchronized (this) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} pending catalog changes on shutdown", pendingCount.get(), e);
+            }
+        }
+    }
+
+    record Change(long id, String type, String payload) {
+    }
+
+    private record PendingChange(String type, String payload, long createdAt) {
+    }
+}
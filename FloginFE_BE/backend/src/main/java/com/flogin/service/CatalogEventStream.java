@@ -0,0 +1,244 @@
+package com.flogin.service;
+
+import com.flogin.Config.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Luồng SSE cho GET /products/events: nhận thay đổi product/category từ CatalogChangeFeed theo thứ tự id của bảng
+ * catalog_changes (id dùng làm id event, giống nhau trên mọi instance), giữ các event gần nhất trong buffer để client
+ * nối lại bằng Last-Event-ID, và đẩy tới mọi subscriber.
+ * Subscriber rảnh không giữ thread (servlet async); mỗi subscriber có hàng đợi giới hạn, được ghi ra bởi
+ * virtual thread nên client chậm không chặn bên phát. Hàng đợi đầy hoặc Last-Event-ID đã trôi khỏi buffer thì
+ * bỏ các event đang chờ và gửi một event "resync": client tải lại GET /products rồi nghe tiếp.
+ */
+@Component
+public class CatalogEventStream implements DisposableBean {
+    private final ArrayDeque<Event> buffer = new ArrayDeque<>();
+    private final int bufferSize;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory());
+    private final ScheduledExecutorService heartbeat;
+    private final Counter published;
+    private final Counter resyncs;
+    // Chỉ đọc/ghi khi giữ khoá buffer
+    private boolean open;
+    private long latestId;
+    // Event có id <= giá trị này đã rời buffer (hoặc có trước khi instance khởi động)
+    private long evictedUpTo;
+
+    public CatalogEventStream(@Value("${app.catalog-events.buffer-size:1024}") int bufferSize,
+                              @Value("${app.catalog-events.queue-capacity:256}") int queueCapacity,
+                              @Value("${app.catalog-events.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${app.catalog-events.timeout-ms:1800000}") long timeoutMillis,
+                              @Value("${app.catalog-events.heartbeat-seconds:25}") long heartbeatSeconds,
+                              MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.published = Counter.builder("catalog.events.published").register(meterRegistry);
+        this.resyncs = Counter.builder("catalog.events.resync").register(meterRegistry);
+        Gauge.builder("catalog.events.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Comment định kỳ giữ kết nối qua proxy và phát hiện client đã ngắt
+        heartbeat.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::ping),
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Bắt đầu phát từ sau id đã cho (id mới nhất trong catalog_changes lúc khởi động). Trước khi mở, mọi
+     * Last-Event-ID đều nhận resync vì chưa biết feed đang ở đâu.
+     */
+    public void open(long startAfter) {
+        synchronized (buffer) {
+            latestId = Math.max(latestId, startAfter);
+            evictedUpTo = Math.max(evictedUpTo, startAfter);
+            open = true;
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("Quá nhiều kết nối theo dõi, vui lòng thử lại sau", 5);
+        }
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        synchronized (buffer) {
+            Long lastId = parseId(lastEventId);
+            if (lastEventId == null) {
+                subscriber.offer(new Event(latestId, "ready", "{}"));
+            } else if (!open || lastId == null || lastId < evictedUpTo || lastId > latestId + bufferSize) {
+                // Id hỏng, quá cũ hoặc lệch quá xa so với feed của instance này
+                subscriber.resync(latestId);
+            } else {
+                // Client có thể đến từ instance khác đã phát xa hơn instance này: bỏ qua các id nó đã nhận
+                subscriber.skipThrough = lastId;
+                buffer.forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Phát một event; CatalogChangeFeed gọi theo thứ tự id tăng dần, id đã phát bị bỏ qua.
+     */
+    public void publish(long id, String name, String data) {
+        // Phát trong khoá buffer để mọi subscriber nhận event theo đúng thứ tự; offer không chặn
+        synchronized (buffer) {
+            if (id <= latestId) {
+                return;
+            }
+            Event event = new Event(id, name, data);
+            buffer.addLast(event);
+            if (buffer.size() > bufferSize) {
+                evictedUpTo = buffer.removeFirst().id();
+            }
+            latestId = id;
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+        published.increment();
+    }
+
+    private static Long parseId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private record Event(long id, String name, String data) {
+    }
+
+    private final class Subscriber {
+        private static final Event PING = new Event(-1, "ping", null);
+
+        final SseEmitter emitter;
+        final ArrayDeque<Event> queue = new ArrayDeque<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        // Chỉ ghi khi giữ khoá buffer, trước khi subscriber nhận event đầu tiên
+        long skipThrough = Long.MIN_VALUE;
+        boolean resyncPending;
+        long resyncId;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            synchronized (this) {
+                if (event.id() <= skipThrough) {
+                    return;
+                }
+                if (resyncPending) {
+                    resyncId = event.id();
+                    return;
+                }
+                if (queue.size() >= queueCapacity) {
+                    resync(event.id());
+                    return;
+                }
+                queue.add(event);
+            }
+            schedule();
+        }
+
+        void resync(long id) {
+            synchronized (this) {
+                queue.clear();
+                resyncPending = true;
+                resyncId = id;
+            }
+            resyncs.increment();
+            schedule();
+        }
+
+        void ping() {
+            synchronized (this) {
+                if (!queue.isEmpty() || resyncPending) {
+                    return;
+                }
+                queue.add(PING);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    if (resyncPending) {
+                        resyncPending = false;
+                        next = SseEmitter.event().id(Long.toString(resyncId)).name("resync").data("{}");
+                    } else {
+                        Event event = queue.poll();
+                        if (event == null) {
+                            draining.set(false);
+                            return;
+                        }
+                        next = event == PING
+                                ? SseEmitter.event().comment("ping")
+                                : SseEmitter.event().id(Long.toString(event.id())).name(event.name()).data(event.data());
+                    }
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            subscribers.remove(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.flogin.service;
+
+import com.flogin.entity.Category;
+import com.flogin.repository.CategoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshot toàn bộ bảng categories trong bộ nhớ (bảng nhỏ, ít thay đổi). Snapshot bị bỏ khi có CategoryChangedEvent
+ * trên process này, khi CatalogChangeFeed đọc được thay đổi category từ instance khác, và tối đa sau ttl-ms.
+ * id không có trong snapshot thì hỏi lại DB bằng findById trước khi báo không tồn tại, nên category vừa tạo trên
+ * instance khác dùng được ngay. Bảng lớn hơn max-size thì không giữ snapshot, mỗi lookup đi thẳng xuống DB.
+ */
+@Component
+public class CategoryCache {
+    private final CategoryRepository categoryRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter loads;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CategoryCache(CategoryRepository categoryRepository,
+                         @Value("${app.category-cache.max-size:10000}") int maxSize,
+                         @Value("${app.category-cache.ttl-ms:60000}") long ttlMillis,
+                         MeterRegistry meterRegistry) {
+        this(categoryRepository, maxSize, ttlMillis, meterRegistry, Clock.systemUTC());
+    }
+
+    CategoryCache(CategoryRepository categoryRepository, int maxSize, long ttlMillis, MeterRegistry meterRegistry,
+                  Clock clock) {
+        this.categoryRepository = categoryRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.hits = Counter.builder("cache.category").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.category").tag("result", "miss").register(meterRegistry);
+        this.loads = Counter.builder("cache.category").tag("result", "load").register(meterRegistry);
+        Gauge.builder("cache.category.size", this, cache -> {
+            Snapshot current = cache.snapshot;
+            return current == null || current.categories() == null ? 0 : current.categories().size();
+        }).register(meterRegistry);
+    }
+
+    public Optional<Category> get(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Map<Long, Category> categories = categories();
+        Category category = categories == null ? null : categories.get(id);
+        if (category != null) {
+            hits.increment();
+            return Optional.of(category);
+        }
+        misses.increment();
+        Optional<Category> loaded = categoryRepository.findById(id);
+        // Có trong DB mà không có trong snapshot: snapshot đã cũ, lần sau đọc lại
+        if (loaded.isPresent() && categories != null) {
+            invalidate();
+        }
+        return loaded;
+    }
+
+    public List<Category> getAll() {
+        Map<Long, Category> categories = categories();
+        if (categories == null) {
+            misses.increment();
+            return categoryRepository.findAll();
+        }
+        hits.increment();
+        return new ArrayList<>(categories.values());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            snapshot = null;
+        }
+    }
+
+    // null khi bảng lớn hơn max-size
+    private Map<Long, Category> categories() {
+        long now = clock.millis();
+        Snapshot current = snapshot;
+        if (current != null && now < current.expiresAt()) {
+            return current.categories();
+        }
+        loads.increment();
+        long loadedAt = generation.get();
+        Map<Long, Category> loaded = null;
+        // Đếm trước để bảng lớn không bị đọc toàn bộ mỗi lần hết hạn
+        if (categoryRepository.count() <= maxSize) {
+            Map<Long, Category> all = new LinkedHashMap<>();
+            for (Category category : categoryRepository.findAll()) {
+                all.put(category.getId(), category);
+            }
+            loaded = Collections.unmodifiableMap(all);
+        }
+        synchronized (this) {
+            // Có ghi xen giữa lúc đang load thì không publish snapshot cũ
+            if (generation.get() == loadedAt) {
+                snapshot = new Snapshot(loaded, now + ttlMillis);
+            }
+        }
+        return loaded;
+    }
+
+    private record Snapshot(Map<Long, Category> categories, long expiresAt) {
+    }
+}
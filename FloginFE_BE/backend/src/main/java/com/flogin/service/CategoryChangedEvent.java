@@ -0,0 +1,7 @@
+package com.flogin.service;
+
+/**
+ * Phát sau mỗi lần tạo/xoá category. name = null khi đã xoá.
+ */
+public record CategoryChangedEvent(Long id, String name, ChangeType type) {
+}
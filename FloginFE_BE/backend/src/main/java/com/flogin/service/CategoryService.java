@@ -6,6 +6,7 @@ import com.flogin.repository.CategoryRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
@@ -17,18 +18,23 @@ import java.util.List;
 @Service
 public class CategoryService {
     CategoryRepository categoryRepository;
+    CategoryCache categoryCache;
+    ApplicationEventPublisher eventPublisher;
 
     public Category createCategory(CategoryRequestDTO categoryRequestDTO) {
-        return categoryRepository.save(new Category(categoryRequestDTO.getName()));
+        Category category = categoryRepository.save(new Category(categoryRequestDTO.getName()));
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId(), category.getName(), ChangeType.CREATED));
+        return category;
     }
 
     public Category getCategory(Long id) {
-        return categoryRepository.findById(id).orElseThrow(() -> new BadCredentialsException("Category không tồn tại"));
+        return categoryCache.get(id).orElseThrow(() -> new BadCredentialsException("Category không tồn tại"));
     }
     public List<Category> getAllCategory(){
-        return categoryRepository.findAll();
+        return categoryCache.getAll();
     }
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, null, ChangeType.DELETED));
     }
 }
@@ -0,0 +1,5 @@
+package com.flogin.service;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
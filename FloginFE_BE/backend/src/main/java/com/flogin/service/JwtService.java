@@ -1,14 +1,23 @@
 package com.flogin.service;
 
+import com.flogin.dto.product.EventStreamTokenDTO;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -20,6 +29,34 @@ public class JwtService {
     @Value("${app.jwt.expiration}")
     private Long JWT_EXPIRATION;
 
+    @Value("${app.jwt.stream-token-ttl-seconds:60}")
+    private Long STREAM_TOKEN_EXPIRATION;
+
+    // Scope của token ngắn hạn chỉ dùng để mở GET /products/events qua query string
+    public static final String EVENT_STREAM_SCOPE = "events";
+
+    // Key và parser dựng một lần; JwtParser của jjwt là immutable, dùng chung giữa các thread
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    public record TokenClaims(String username, Date expiration, List<String> roles, String scope) {
+    }
+
+    /**
+     * Verify chữ ký và decode token đúng một lần. Token sai chữ ký hoặc đã hết hạn sẽ ném JwtException.
+     */
+    public TokenClaims parseToken(String token) {
+        Claims claims = getAllClaimsFromToken(token);
+        return new TokenClaims(claims.getSubject(), claims.getExpiration(), readRoles(claims.get("roles")),
+                claims.get("scope", String.class));
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -34,30 +71,47 @@ public class JwtService {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser().setSigningKey(JWT_SECRET).parseClaimsJws(token).getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", userDetails.getAuthorities());
-        return doGenerateToken(claims, userDetails.getUsername());
+        return doGenerateToken(claims, userDetails.getUsername(), JWT_EXPIRATION);
+    }
+
+    /**
+     * Token ngắn hạn cho EventSource (không gửi được header Authorization). Token mang scope riêng nên
+     * JwtAuthFilter chỉ chấp nhận nó ở endpoint SSE, không dùng được cho API khác dù bị lộ qua URL/log.
+     */
+    public EventStreamTokenDTO generateEventStreamToken(String username) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("scope", EVENT_STREAM_SCOPE);
+        return new EventStreamTokenDTO(doGenerateToken(claims, username, STREAM_TOKEN_EXPIRATION), STREAM_TOKEN_EXPIRATION);
     }
 
-    private String doGenerateToken(Map<String, Object> claims, String subject) {
+    private String doGenerateToken(Map<String, Object> claims, String subject, long expirationSeconds) {
         return Jwts.builder().setClaims(claims).setSubject(subject).setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION * 1000))
-                .signWith(SignatureAlgorithm.HS512, JWT_SECRET).compact();
+                .setExpiration(new Date(System.currentTimeMillis() + expirationSeconds * 1000))
+                .signWith(signingKey, SignatureAlgorithm.HS512).compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final TokenClaims claims = parseToken(token);
+        return claims.username().equals(userDetails.getUsername()) && claims.expiration().after(new Date());
     }
 
+    private static List<String> readRoles(Object roles) {
+        List<String> result = new ArrayList<>();
+        if (roles instanceof Collection<?> collection) {
+            for (Object role : collection) {
+                if (role instanceof Map<?, ?> map && map.get("authority") != null) {
+                    result.add(map.get("authority").toString());
+                } else if (role != null) {
+                    result.add(role.toString());
+                }
+            }
+        }
+        return result;
+    }
 }
-
@@ -0,0 +1,176 @@
+package com.flogin.service;
+
+import com.flogin.dto.product.ProductBatchItemRequestDTO;
+import com.flogin.dto.product.ProductBatchItemResultDTO;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.entity.Category;
+import com.flogin.mapper.CategoryMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Tạo/cập nhật sản phẩm hàng loạt bằng JDBC batch. BaseEntity dùng IDENTITY nên Hibernate không batch được INSERT;
+ * ở đây mỗi chunk là một transaction với một lệnh batch INSERT và một lệnh batch UPDATE.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Service
+public class ProductBatchService {
+    private static final Logger log = LoggerFactory.getLogger(ProductBatchService.class);
+    private static final String CHUNK_FAILED_MESSAGE = "Không lưu được sản phẩm, vui lòng thử lại";
+    private static final String INSERT_SQL = "INSERT INTO products (name, price, quantity, description, category_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE products SET name = ?, price = ?, quantity = ?, description = ?, category_id = ? WHERE id = ?";
+
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    Validator validator;
+    CategoryCache categoryCache;
+    CategoryMapper categoryMapper;
+    ApplicationEventPublisher eventPublisher;
+
+    @NonFinal
+    @Value("${app.batch.max-items:5000}")
+    int maxItems;
+
+    @NonFinal
+    @Value("${app.batch.chunk-size:50}")
+    int chunkSize;
+
+    public List<ProductBatchItemResultDTO> saveAll(List<ProductBatchItemRequestDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("Danh sách sản phẩm trống");
+        }
+        if (items.size() > maxItems) {
+            throw new RuntimeException("Tối đa " + maxItems + " sản phẩm mỗi lần");
+        }
+        ProductBatchItemResultDTO[] results = new ProductBatchItemResultDTO[items.size()];
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error != null) {
+                results[i] = new ProductBatchItemResultDTO(i, items.get(i).getId(), "FAILED", error);
+            } else {
+                valid.add(i);
+            }
+        }
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(items, chunk, results));
+                for (int index : chunk) {
+                    publishChanged(items.get(index), results[index]);
+                }
+            } catch (DataAccessException | TransactionException e) {
+                // Lỗi của driver lộ tên bảng/cột/constraint: chỉ ghi log, client nhận thông báo chung
+                log.warn("Product batch chunk failed for items {}", chunk, e);
+                for (int index : chunk) {
+                    results[index] = new ProductBatchItemResultDTO(index, items.get(index).getId(), "FAILED",
+                            CHUNK_FAILED_MESSAGE);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void publishChanged(ProductBatchItemRequestDTO item, ProductBatchItemResultDTO result) {
+        if ("FAILED".equals(result.getStatus()) || result.getId() == null) {
+            return;
+        }
+        Category category = categoryCache.get(item.getCategory_id()).orElse(null);
+        ProductResponseDTO product = new ProductResponseDTO(result.getId(), item.getProductName(), item.getPrice(),
+                item.getQuantity(), item.getDescription(), category == null ? null : categoryMapper.toCategoryDTO(category));
+        eventPublisher.publishEvent(new ProductChangedEvent(result.getId(), product,
+                "CREATED".equals(result.getStatus()) ? ChangeType.CREATED : ChangeType.UPDATED));
+    }
+
+    private String validate(ProductBatchItemRequestDTO item) {
+        if (item == null) {
+            return "Sản phẩm không hợp lệ";
+        }
+        var violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+        Optional<Category> category = categoryCache.get(item.getCategory_id());
+        return category.isPresent() ? null : "Category không tồn tại";
+    }
+
+    private void writeChunk(List<ProductBatchItemRequestDTO> items, List<Integer> chunk, ProductBatchItemResultDTO[] results) {
+        List<Integer> inserts = chunk.stream().filter(i -> items.get(i).getId() == null).toList();
+        List<Integer> updates = chunk.stream().filter(i -> items.get(i).getId() != null).toList();
+
+        if (!inserts.isEmpty()) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    setter(items, inserts, false), keyHolder);
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int k = 0; k < inserts.size(); k++) {
+                int index = inserts.get(k);
+                Long id = k < keys.size() ? ((Number) keys.get(k).values().iterator().next()).longValue() : null;
+                results[index] = new ProductBatchItemResultDTO(index, id, "CREATED", null);
+            }
+        }
+        if (!updates.isEmpty()) {
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(),
+                    (ps, index) -> bind(ps, items.get(index), true));
+            for (int k = 0; k < updates.size(); k++) {
+                int index = updates.get(k);
+                int updated = counts[0][k];
+                results[index] = updated == 0
+                        ? new ProductBatchItemResultDTO(index, items.get(index).getId(), "FAILED", "Product không tồn tại")
+                        : new ProductBatchItemResultDTO(index, items.get(index).getId(), "UPDATED", null);
+            }
+        }
+    }
+
+    private static BatchPreparedStatementSetter setter(List<ProductBatchItemRequestDTO> items, List<Integer> indexes, boolean update) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, items.get(indexes.get(i)), update);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return indexes.size();
+            }
+        };
+    }
+
+    private static void bind(PreparedStatement ps, ProductBatchItemRequestDTO item, boolean update) throws SQLException {
+        ps.setString(1, item.getProductName());
+        ps.setBigDecimal(2, item.getPrice());
+        ps.setInt(3, item.getQuantity());
+        ps.setString(4, item.getDescription());
+        ps.setLong(5, item.getCategory_id());
+        if (update) {
+            ps.setLong(6, item.getId());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.flogin.service;
+
+import com.flogin.dto.product.ProductResponseDTO;
+
+/**
+ * Phát sau mỗi lần ghi product. product = trạng thái mới, null khi đã xoá.
+ */
+public record ProductChangedEvent(Long id, ProductResponseDTO product, ChangeType type) {
+    public ProductChangedEvent(Long id, ProductResponseDTO product) {
+        this(id, product, product == null ? ChangeType.DELETED : ChangeType.UPDATED);
+    }
+
+    public boolean deleted() {
+        return product == null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.flogin.service;
+
+import com.flogin.entity.Product;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cursor cho phân trang keyset: mã hoá "thuộc tính,chiều sort : giá trị : id" của phần tử cuối trang
+ * thành chuỗi base64url, để trang sau chỉ cần WHERE (key, id) > (?, ?) thay vì OFFSET.
+ * Cursor chỉ dùng được với đúng thuộc tính và chiều sort đã tạo ra nó.
+ */
+final class ProductCursor {
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "name", "price", "quantity");
+
+    private ProductCursor() {
+    }
+
+    static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Direction.ASC, "id");
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORT_PROPERTIES.contains(property)) {
+            throw new RuntimeException("Không hỗ trợ sắp xếp theo: " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromOptionalString(parts[1].trim()).orElse(Sort.Direction.ASC)
+                : Sort.Direction.ASC;
+        return Sort.by(direction, property);
+    }
+
+    static ScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        String property = sortProperty(sort);
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
+        int first = raw.indexOf(':');
+        int last = raw.lastIndexOf(':');
+        if (first < 0 || first == last || !raw.substring(0, first).equals(sortKey(sort))) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            if (!property.equals("id")) {
+                keys.put(property, parseValue(property, raw.substring(first + 1, last)));
+            }
+            keys.put("id", Long.parseLong(raw.substring(last + 1)));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    static String encode(Product last, Sort sort) {
+        String value = switch (sortProperty(sort)) {
+            case "name" -> last.getName();
+            case "price" -> {
+                // Chỉ gặp ở dữ liệu cũ chưa chạy db/products_price_not_null.sql
+                if (last.getPrice() == null) {
+                    throw new IllegalStateException("Sản phẩm " + last.getId() + " chưa có giá");
+                }
+                yield last.getPrice().toPlainString();
+            }
+            case "quantity" -> String.valueOf(last.getQuantity());
+            default -> "";
+        };
+        String raw = sortKey(sort) + ":" + value + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sortProperty(Sort sort) {
+        return sort.iterator().next().getProperty();
+    }
+
+    // Ví dụ "price,desc": cursor của chiều asc đem dùng cho desc sẽ bị từ chối thay vì trả về trang sai
+    private static String sortKey(Sort sort) {
+        Sort.Order order = sort.iterator().next();
+        return order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT);
+    }
+
+    private static Object parseValue(String property, String value) {
+        return switch (property) {
+            case "price" -> new BigDecimal(value);
+            case "quantity" -> Integer.parseInt(value);
+            default -> value;
+        };
+    }
+}
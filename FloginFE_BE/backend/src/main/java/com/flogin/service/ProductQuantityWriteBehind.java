@@ -0,0 +1,265 @@
+package com.flogin.service;
+
+import com.flogin.Config.InsufficientStockException;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.mapper.ProductMapper;
+import com.flogin.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Điều chỉnh số lượng theo delta (PATCH /products/{id}/quantity). Khi bật app.write-behind.enabled, delta của cùng
+ * một product được cộng dồn trong bộ đệm chia stripe và ghi xuống DB bằng một lệnh batch mỗi flush-interval-ms
+ * hoặc khi đủ max-pending-deltas. Nếu process chết đột ngột thì mất tối đa phần chưa flush trong khoảng đó;
+ * khi tắt ứng dụng bình thường bộ đệm luôn được flush. Mặc định tắt: mỗi delta được ghi ngay.
+ * Câu UPDATE chỉ ghi khi số lượng mới nằm trong [0, 99999] (cùng giới hạn với ProductRequestDTO). Ở chế độ
+ * write-behind, dòng bị từ chối lúc flush (vượt giới hạn hoặc product đã bị xoá) bị bỏ và đếm vào
+ * product.writebehind.rejected; batch lỗi liên tục max-flush-attempts lần thì được ghi lại từng dòng, dòng vẫn lỗi
+ * bị bỏ và đếm vào product.writebehind.dropped.
+ */
+@Component
+public class ProductQuantityWriteBehind implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ProductQuantityWriteBehind.class);
+    private static final int MAX_QUANTITY = 99999;
+    private static final String ADJUST_SQL = "UPDATE products SET quantity = quantity + ? WHERE id = ? AND quantity + ? BETWEEN 0 AND "
+            + MAX_QUANTITY;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int maxPendingDeltas;
+    private final int maxFlushAttempts;
+    private final Stripe[] stripes;
+    private final AtomicInteger pendingDeltas = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private final Counter deltas;
+    private final Counter rows;
+    private final Counter failures;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Timer flushTimer;
+    // Chỉ đọc/ghi khi giữ flushLock
+    private int consecutiveFailures;
+
+    public ProductQuantityWriteBehind(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                      ProductRepository productRepository, ProductMapper productMapper,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${app.write-behind.enabled:false}") boolean enabled,
+                                      @Value("${app.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                                      @Value("${app.write-behind.max-pending-deltas:1000}") int maxPendingDeltas,
+                                      @Value("${app.write-behind.stripes:16}") int stripeCount,
+                                      @Value("${app.write-behind.max-flush-attempts:50}") int maxFlushAttempts,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.maxPendingDeltas = maxPendingDeltas;
+        this.maxFlushAttempts = Math.max(1, maxFlushAttempts);
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.deltas = Counter.builder("product.writebehind.deltas").register(meterRegistry);
+        this.rows = Counter.builder("product.writebehind.rows").register(meterRegistry);
+        this.failures = Counter.builder("product.writebehind.flush.failures").register(meterRegistry);
+        this.rejected = Counter.builder("product.writebehind.rejected").register(meterRegistry);
+        this.dropped = Counter.builder("product.writebehind.dropped").register(meterRegistry);
+        this.flushTimer = Timer.builder("product.writebehind.flush").register(meterRegistry);
+        Gauge.builder("product.writebehind.pending", pendingDeltas, AtomicInteger::get).register(meterRegistry);
+        // Số delta nhận được trên mỗi dòng thực sự ghi xuống DB
+        Gauge.builder("product.writebehind.coalescing.ratio", this,
+                w -> w.deltas.count() / Math.max(1.0, w.rows.count())).register(meterRegistry);
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "product-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return trạng thái mới của product khi ghi ngay, null nếu delta đã vào bộ đệm write-behind
+     */
+    public ProductResponseDTO adjust(Long id, int delta) {
+        if (delta == 0) {
+            throw new RuntimeException("Delta phải khác 0");
+        }
+        deltas.increment();
+        if (!enabled) {
+            WriteResult result = write(Map.of(id, (long) delta));
+            if (!result.rejected().isEmpty()) {
+                throw rejection(id, delta);
+            }
+            return result.updated().get(0);
+        }
+        // Id không tồn tại thì báo lỗi ngay thay vì trả 202 rồi bỏ delta lúc flush
+        if (!productRepository.existsById(id)) {
+            throw new RuntimeException("Product không tồn tại");
+        }
+        requeue(id, delta);
+        if (pendingDeltas.incrementAndGet() >= maxPendingDeltas) {
+            scheduler.execute(this::flush);
+        }
+        return null;
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            // Reset trước khi gom: delta đến giữa chừng có thể bị đếm dư (flush sớm hơn) nhưng không bị đếm thiếu
+            pendingDeltas.set(0);
+            Map<Long, Long> drained = new TreeMap<>();
+            for (Stripe stripe : stripes) {
+                Map<Long, Long> pending;
+                synchronized (stripe) {
+                    if (stripe.pending.isEmpty()) {
+                        continue;
+                    }
+                    pending = stripe.pending;
+                    stripe.pending = new HashMap<>();
+                }
+                pending.forEach((id, delta) -> drained.merge(id, delta, Long::sum));
+            }
+            drained.values().removeIf(delta -> delta == 0);
+            if (drained.isEmpty()) {
+                return;
+            }
+            Timer.Sample sample = Timer.start();
+            try {
+                dropRejected(write(drained), drained);
+                consecutiveFailures = 0;
+            } catch (RuntimeException e) {
+                failures.increment();
+                if (++consecutiveFailures < maxFlushAttempts) {
+                    log.warn("Write-behind flush failed for {} products, retrying on next flush", drained.size(), e);
+                    drained.forEach(this::requeue);
+                    pendingDeltas.addAndGet(drained.size());
+                } else {
+                    // Lỗi lặp lại: ghi từng dòng để một dòng lỗi không giữ lại cả batch mãi
+                    consecutiveFailures = 0;
+                    drained.forEach(this::writeIsolated);
+                }
+            } finally {
+                sample.stop(flushTimer);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void requeue(Long id, long delta) {
+        Stripe stripe = stripes[Math.floorMod(id.hashCode(), stripes.length)];
+        synchronized (stripe) {
+            stripe.pending.merge(id, delta, Long::sum);
+        }
+    }
+
+    private void writeIsolated(Long id, Long delta) {
+        try {
+            dropRejected(write(Map.of(id, delta)), Map.of(id, delta));
+        } catch (RuntimeException e) {
+            dropped.increment();
+            log.error("Dropping write-behind delta {} for product {} after {} failed flushes",
+                    delta, id, maxFlushAttempts, e);
+        }
+    }
+
+    private void dropRejected(WriteResult result, Map<Long, Long> deltasById) {
+        for (Long id : result.rejected()) {
+            rejected.increment();
+            log.warn("Dropping write-behind delta {} for product {}: product missing or quantity out of range",
+                    deltasById.get(id), id);
+        }
+    }
+
+    private RuntimeException rejection(Long id, int delta) {
+        if (!productRepository.existsById(id)) {
+            return new RuntimeException("Product không tồn tại");
+        }
+        return delta < 0
+                ? new InsufficientStockException(id)
+                : new RuntimeException("Số lượng tối đa không quá 99,999");
+    }
+
+    private WriteResult write(Map<Long, Long> deltasById) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltasById.entrySet());
+        List<Long> rejectedIds = new ArrayList<>();
+        List<ProductResponseDTO> updated = transactionTemplate.execute(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(ADJUST_SQL, entries, entries.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.setLong(3, entry.getValue());
+            });
+            Set<Long> applied = new HashSet<>();
+            for (int k = 0; k < entries.size(); k++) {
+                if (counts[0][k] == 0) {
+                    rejectedIds.add(entries.get(k).getKey());
+                } else {
+                    applied.add(entries.get(k).getKey());
+                }
+            }
+            return applied.isEmpty()
+                    ? List.<ProductResponseDTO>of()
+                    : productRepository.findAllByIdIn(applied).stream()
+                            .map(productMapper::toProductResponseDTO)
+                            .toList();
+        });
+        rows.increment(entries.size() - rejectedIds.size());
+        updated.forEach(product -> eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product)));
+        return new WriteResult(updated, rejectedIds);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+        }
+    }
+
+    private record WriteResult(List<ProductResponseDTO> updated, List<Long> rejected) {
+    }
+
+    private static final class Stripe {
+        Map<Long, Long> pending = new HashMap<>();
+    }
+}
@@ -0,0 +1,283 @@
+package com.flogin.service;
+
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.dto.product.ProductSearchResponseDTO;
+import com.flogin.entity.Product;
+import com.flogin.mapper.ProductMapper;
+import com.flogin.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Chỉ mục đảo trong bộ nhớ cho GET /products/search: term (tên + mô tả, bỏ dấu) -> id, kèm chỉ mục theo giá.
+ * Dựng khi ứng dụng sẵn sàng, sau đó cập nhật theo ProductChangedEvent; truy vấn không chạm MySQL.
+ * Event chỉ đến từ ghi trên process này, nên chỉ mục còn được dựng lại toàn bộ mỗi app.search.resync-interval-ms:
+ * ghi ở replica khác hiện ra trong kết quả tìm kiếm sau tối đa khoảng đó (cộng độ trễ của read replica).
+ */
+@Component
+public class ProductSearchIndex implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int defaultSize;
+    private final int maxSize;
+    private final long resyncIntervalMillis;
+    private ScheduledExecutorService scheduler;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductResponseDTO> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final TreeMap<BigDecimal, Set<Long>> byPrice = new TreeMap<>();
+    private final List<ProductChangedEvent> pending = new ArrayList<>();
+    private boolean building;
+
+    public ProductSearchIndex(ProductRepository productRepository, ProductMapper productMapper, EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.search.default-size:20}") int defaultSize,
+                              @Value("${app.search.max-size:100}") int maxSize,
+                              @Value("${app.search.resync-interval-ms:60000}") long resyncIntervalMillis) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+        this.resyncIntervalMillis = resyncIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        rebuild();
+        if (resyncIntervalMillis > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "search-index-resync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::rebuild, resyncIntervalMillis, resyncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<ProductResponseDTO> loaded = new ArrayList<>();
+        boolean succeeded;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Product> products = productRepository.streamAllBy()) {
+                    products.forEach(product -> {
+                        loaded.add(productMapper.toProductResponseDTO(product));
+                        entityManager.detach(product);
+                    });
+                }
+            });
+            succeeded = true;
+        } catch (RuntimeException e) {
+            // Không để lỗi dựng chỉ mục làm hỏng khởi động; giữ chỉ mục hiện có
+            log.error("Could not rebuild product search index", e);
+            succeeded = false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (succeeded) {
+                documents.clear();
+                postings.clear();
+                byPrice.clear();
+                loaded.forEach(this::add);
+            }
+            // Thay đổi đến trong lúc đang dựng thì áp dụng lại sau khi đã thay chỉ mục
+            pending.forEach(this::apply);
+            pending.clear();
+            building = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                pending.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductSearchResponseDTO search(String query, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                           Integer minQuantity, Integer maxQuantity, Integer size) {
+        int limit = size == null ? defaultSize : Math.max(1, Math.min(size, maxSize));
+        lock.readLock().lock();
+        try {
+            Map<String, Long> facets = new TreeMap<>();
+            List<ProductResponseDTO> matched = new ArrayList<>();
+            for (Long id : candidates(tokens(query), minPrice, maxPrice)) {
+                ProductResponseDTO product = documents.get(id);
+                if (product == null || !inRange(product, minPrice, maxPrice, minQuantity, maxQuantity)) {
+                    continue;
+                }
+                String categoryName = product.getCategory() == null ? "" : product.getCategory().getName();
+                facets.merge(categoryName, 1L, Long::sum);
+                if (category == null || category.isBlank() || category.equalsIgnoreCase(categoryName)) {
+                    matched.add(product);
+                }
+            }
+            matched.sort(Comparator.comparing(ProductResponseDTO::getId));
+            return new ProductSearchResponseDTO(new ArrayList<>(matched.subList(0, Math.min(limit, matched.size()))),
+                    matched.size(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(List<String> terms, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!terms.isEmpty()) {
+            List<Set<Long>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            // Giao các posting list, bắt đầu từ list ngắn nhất
+            lists.sort(Comparator.comparingInt(Set::size));
+            List<Long> result = new ArrayList<>();
+            for (Long id : lists.get(0)) {
+                boolean all = true;
+                for (int i = 1; i < lists.size() && all; i++) {
+                    all = lists.get(i).contains(id);
+                }
+                if (all) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+        if (minPrice != null || maxPrice != null) {
+            NavigableMap<BigDecimal, Set<Long>> range = byPrice;
+            if (minPrice != null) {
+                range = range.tailMap(minPrice, true);
+            }
+            if (maxPrice != null) {
+                range = range.headMap(maxPrice, true);
+            }
+            List<Long> result = new ArrayList<>();
+            range.values().forEach(result::addAll);
+            return result;
+        }
+        return documents.keySet();
+    }
+
+    private static boolean inRange(ProductResponseDTO product, BigDecimal minPrice, BigDecimal maxPrice,
+                                   Integer minQuantity, Integer maxQuantity) {
+        BigDecimal price = product.getPrice() == null ? BigDecimal.ZERO : product.getPrice();
+        return (minPrice == null || price.compareTo(minPrice) >= 0)
+                && (maxPrice == null || price.compareTo(maxPrice) <= 0)
+                && (minQuantity == null || product.getQuantity() >= minQuantity)
+                && (maxQuantity == null || product.getQuantity() <= maxQuantity);
+    }
+
+    private void apply(ProductChangedEvent event) {
+        remove(event.id());
+        if (!event.deleted()) {
+            add(event.product());
+        }
+    }
+
+    private void add(ProductResponseDTO product) {
+        documents.put(product.getId(), product);
+        for (String term : documentTokens(product)) {
+            postings.computeIfAbsent(term, key -> new HashSet<>()).add(product.getId());
+        }
+        byPrice.computeIfAbsent(priceKey(product), key -> new HashSet<>()).add(product.getId());
+    }
+
+    private void remove(Long id) {
+        ProductResponseDTO old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String term : documentTokens(old)) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        Set<Long> ids = byPrice.get(priceKey(old));
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            byPrice.remove(priceKey(old));
+        }
+    }
+
+    private static BigDecimal priceKey(ProductResponseDTO product) {
+        return product.getPrice() == null ? BigDecimal.ZERO : product.getPrice().stripTrailingZeros();
+    }
+
+    private static List<String> documentTokens(ProductResponseDTO product) {
+        List<String> terms = new ArrayList<>(tokens(product.getProductName()));
+        terms.addAll(tokens(product.getDescription()));
+        return terms.stream().distinct().toList();
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("")
+                .replace('đ', 'd');
+        return Arrays.stream(SEPARATORS.split(normalized)).filter(term -> !term.isEmpty()).distinct().toList();
+    }
+}
@@ -1,33 +1,69 @@
 package com.flogin.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.cache.ProductReadCache;
+import com.flogin.dto.product.ProductPageResponseDTO;
 import com.flogin.dto.product.ProductRequestDTO;
 import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.dto.product.ProductSummaryDTO;
 import com.flogin.entity.Category;
 import com.flogin.entity.Product;
-import com.flogin.repository.CategoryRepository;
 import com.flogin.repository.ProductRepository;
 import com.flogin.mapper.CategoryMapper;
 import com.flogin.mapper.ProductMapper;
+import jakarta.persistence.EntityManager;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Service
 public class ProductService {
+    private static final int EXPORT_FLUSH_EVERY = 500;
+    // Cùng giới hạn với validation của ProductRequestDTO
+    private static final BigDecimal MIN_PRICE = BigDecimal.ZERO;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("999999999");
+
     ProductRepository productRepository;
-    CategoryRepository categoryRepository;
+    CategoryCache categoryCache;
+    ProductReadCache productReadCache;
+    ApplicationEventPublisher eventPublisher;
     CategoryMapper categoryMapper;
     ProductMapper productMapper;
+    ObjectMapper objectMapper;
+    EntityManager entityManager;
+
+    @NonFinal
+    @Value("${app.pagination.default-size:20}")
+    int defaultPageSize;
 
+    @NonFinal
+    @Value("${app.pagination.max-size:100}")
+    int maxPageSize;
+
+    @Transactional
     public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
-        Category category = categoryRepository.findById(productRequestDTO.getCategory_id())
+        Category category = categoryCache.get(productRequestDTO.getCategory_id())
                 .orElseThrow(() -> new BadCredentialsException("Category không tồn tại"));
         Product product = new Product(productRequestDTO.getProductName(),
                 productRequestDTO.getPrice(),
@@ -35,7 +71,7 @@ public class ProductService {
                 productRequestDTO.getDescription(),
                 category);
         productRepository.save(product);
-        return new ProductResponseDTO(
+        ProductResponseDTO response = new ProductResponseDTO(
                 product.getId(),
                 productRequestDTO.getProductName(),
                 productRequestDTO.getPrice(),
@@ -43,12 +79,15 @@ public class ProductService {
                 productRequestDTO.getDescription(),
                 categoryMapper.toCategoryDTO(category)
         );
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), response, ChangeType.CREATED));
+        return response;
     }
 
+    @Transactional
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product không tồn tại"));
-        Category category = categoryRepository.findById(productRequestDTO.getCategory_id())
+        Category category = categoryCache.get(productRequestDTO.getCategory_id())
                 .orElseThrow(() -> new BadCredentialsException("Category không tồn tại"));
         product.setName(productRequestDTO.getProductName());
         product.setPrice(productRequestDTO.getPrice());
@@ -56,7 +95,7 @@ public class ProductService {
         product.setDescription(productRequestDTO.getDescription());
         product.setCategory(category);
         productRepository.save(product);
-        return new ProductResponseDTO(
+        ProductResponseDTO response = new ProductResponseDTO(
                 product.getId(),
                 product.getName(),
                 product.getPrice(),
@@ -64,11 +103,15 @@ public class ProductService {
                 product.getDescription(),
                 categoryMapper.toCategoryDTO(category)
         );
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), response));
+        return response;
     }
+    @Transactional
     public ProductResponseDTO deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findWithCategoryById(id)
                 .orElseThrow(() -> new RuntimeException("Product không tồn tại"));
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), null));
         return new ProductResponseDTO(
                 product.getId(),
                 product.getName(),
@@ -79,17 +122,70 @@ public class ProductService {
         );
     }
     public ProductResponseDTO getProduct(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product không tồn tại"));
-        return productMapper.toProductResponseDTO(product);
+        return productReadCache.getProduct(id, () -> {
+            Product product = productRepository.findWithCategoryById(id)
+                    .orElseThrow(() -> new RuntimeException("Product không tồn tại"));
+            return productMapper.toProductResponseDTO(product);
+        });
     }
     public List<ProductResponseDTO> getAllProduct(){
-        List<Product> products = productRepository.findAll();
-        if (products.isEmpty()) return null;
-        List<ProductResponseDTO> responseDTOList = new ArrayList<>();
-        for (Product product : products){
-            responseDTOList.add(productMapper.toProductResponseDTO(product));
+        return productReadCache.getAllProducts(() -> {
+            List<Product> products = productRepository.findAllWithCategory();
+            if (products.isEmpty()) return null;
+            List<ProductResponseDTO> responseDTOList = new ArrayList<>();
+            for (Product product : products){
+                responseDTOList.add(productMapper.toProductResponseDTO(product));
+            }
+            return responseDTOList;
+        });
+    }
+
+    public ProductPageResponseDTO getProductPage(String cursor, Integer size, String sort) {
+        int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        Sort order = ProductCursor.parseSort(sort);
+        Window<Product> window = productRepository.findAllBy(ProductCursor.decode(cursor, order), order, Limit.of(limit));
+        List<ProductResponseDTO> items = new ArrayList<>(window.size());
+        for (Product product : window) {
+            items.add(productMapper.toProductResponseDTO(product));
+        }
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? ProductCursor.encode(window.getContent().get(window.size() - 1), order)
+                : null;
+        return new ProductPageResponseDTO(items, nextCursor, nextCursor != null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSummaryDTO> filterProducts(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                  boolean inStock, Integer size) {
+        int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        BigDecimal min = minPrice == null ? MIN_PRICE : minPrice;
+        BigDecimal max = maxPrice == null ? MAX_PRICE : maxPrice;
+        int minQuantity = inStock ? 1 : 0;
+        return categoryId == null
+                ? productRepository.findSummaries(min, max, minQuantity, Limit.of(limit))
+                : productRepository.findSummariesByCategory(categoryId, min, max, minQuantity, Limit.of(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            Iterator<Product> iterator = products.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                generator.writeObject(productMapper.toProductResponseDTO(product));
+                entityManager.detach(product);
+                if (++count % EXPORT_FLUSH_EVERY == 1) {
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
         }
-        return responseDTOList;
+        generator.flush();
     }
 }
@@ -0,0 +1,97 @@
+package com.flogin.service;
+
+import com.flogin.Config.InsufficientStockException;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.dto.product.StockReservationItemDTO;
+import com.flogin.entity.Product;
+import com.flogin.mapper.ProductMapper;
+import com.flogin.repository.ProductRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Giữ hàng (trừ tồn kho) cho nhiều sản phẩm trong một transaction. Mỗi dòng là một UPDATE có điều kiện
+ * quantity >= ?, nên hai request đồng thời không thể cùng trừ vào một lượng hàng; cả batch gửi một lần qua JDBC.
+ * Nếu một sản phẩm không đủ hàng thì rollback toàn bộ.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Service
+public class ProductStockService {
+    private static final String DECREMENT_SQL = "UPDATE products SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    Validator validator;
+    ProductRepository productRepository;
+    ProductMapper productMapper;
+    ApplicationEventPublisher eventPublisher;
+
+    @NonFinal
+    @Value("${app.batch.max-items:5000}")
+    int maxItems;
+
+    public List<ProductResponseDTO> reserve(List<StockReservationItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("Danh sách giữ hàng trống");
+        }
+        if (items.size() > maxItems) {
+            throw new RuntimeException("Tối đa " + maxItems + " sản phẩm mỗi lần");
+        }
+        // Gộp trùng và sắp theo id: các transaction luôn khoá dòng theo cùng thứ tự nên không deadlock
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationItemDTO item : items) {
+            String error = validate(item);
+            if (error != null) {
+                throw new RuntimeException(error);
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+
+        List<ProductResponseDTO> products = transactionTemplate.execute(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, entries, entries.size(), (ps, entry) -> {
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.setInt(3, entry.getValue());
+            });
+            for (int k = 0; k < entries.size(); k++) {
+                if (counts[0][k] == 0) {
+                    throw new InsufficientStockException(entries.get(k).getKey());
+                }
+            }
+            List<ProductResponseDTO> updated = new ArrayList<>(entries.size());
+            for (Product product : productRepository.findAllByIdIn(quantities.keySet())) {
+                updated.add(productMapper.toProductResponseDTO(product));
+            }
+            return updated;
+        });
+        products.forEach(product -> eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product)));
+        return products;
+    }
+
+    private String validate(StockReservationItemDTO item) {
+        if (item == null) {
+            return "Sản phẩm không hợp lệ";
+        }
+        var violations = validator.validate(item);
+        return violations.isEmpty()
+                ? null
+                : violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+}
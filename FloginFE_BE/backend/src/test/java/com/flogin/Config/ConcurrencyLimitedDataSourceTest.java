@@ -0,0 +1,155 @@
+package com.flogin.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+    static final String URL = "jdbc:h2:mem:concurrency-limit;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void connectionsBeyondLimitWaitThenTimeOut() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(h2(), 2, 50);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        try (Connection third = dataSource.getConnection()) {
+            assertFalse(third.isClosed());
+        }
+        second.close();
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(h2(), 2, 50);
+        Connection connection = dataSource.getConnection();
+        Connection other = dataSource.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        other.close();
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void failedGetConnectionReturnsPermit() throws Exception {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("down"));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(broken, 1, 50);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void objectMethodsAreAnsweredByTheProxy() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(h2(), 2, 50);
+        try (Connection connection = dataSource.getConnection(); Connection other = dataSource.getConnection()) {
+            assertEquals(connection, connection);
+            assertNotEquals(connection, other);
+            assertEquals(System.identityHashCode(connection), connection.hashCode());
+            assertTrue(connection.toString().startsWith("ConcurrencyLimited["));
+            // equals/hashCode không được mượn thêm hay trả permit
+            assertEquals(0, dataSource.availablePermits());
+        }
+    }
+
+    @Test
+    void queriesOnVirtualThreadsDoNotPinCarrier() throws Exception {
+        Path file = Files.createTempFile("virtual-thread-pinned", ".jfr");
+        try (HikariDataSource pool = new HikariDataSource(); Recording recording = new Recording()) {
+            pool.setJdbcUrl(URL);
+            pool.setUsername("sa");
+            pool.setMaximumPoolSize(4);
+            ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 4, 5000);
+            recording.enable("jdk.VirtualThreadPinned").withoutThreshold().withStackTrace();
+            recording.start();
+
+            // 64 virtual thread tranh 4 connection: phần lớn phải park trên semaphore / trong Hikari
+            AtomicInteger rows = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("db-vt-", 0).factory())) {
+                for (int i = 0; i < 64; i++) {
+                    futures.add(executor.submit(() -> {
+                        try (Connection connection = dataSource.getConnection();
+                             Statement statement = connection.createStatement();
+                             ResultSet rs = statement.executeQuery("SELECT 1")) {
+                            rs.next();
+                            rows.addAndGet(rs.getInt(1));
+                            Thread.sleep(5);
+                        }
+                        return null;
+                    }));
+                }
+                // Đối chứng: park trong synchronized thì JFR phải ghi được event (JDK < 24)
+                executor.submit(() -> {
+                    Object lock = new Object();
+                    synchronized (lock) {
+                        Thread.sleep(20);
+                    }
+                    return null;
+                }).get();
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            recording.stop();
+            recording.dump(file);
+
+            assertEquals(64, rows.get());
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(file);
+            long probe = pinned.stream().filter(event -> isFrom(event, "db-vt-64")).count();
+            long queries = pinned.stream().filter(event -> isFrom(event, "db-vt-")).count() - probe;
+            if (Runtime.version().feature() < 24) {
+                assertTrue(probe > 0, "JFR không ghi được jdk.VirtualThreadPinned");
+            }
+            assertEquals(0, queries, () -> "Carrier thread bị pin khi truy cập DB: " + pinned);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static boolean isFrom(RecordedEvent event, String threadName) {
+        return event.getThread() != null && event.getThread().getJavaName() != null
+                && event.getThread().getJavaName().startsWith(threadName);
+    }
+
+    private static DataSource h2() {
+        return new DriverManagerDataSource(URL, "sa", "");
+    }
+}
@@ -0,0 +1,132 @@
+package com.flogin.Config;
+
+import com.flogin.cache.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtAuthCacheTest {
+    MutableClock clock = new MutableClock();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void missThenHitAreCounted() {
+        JwtAuthCache cache = newCache(100);
+
+        assertNull(cache.get("token-a"));
+        cache.put("token-a", user("alice"), expiresIn(Duration.ofHours(1)));
+        UserDetails cached = cache.get("token-a");
+
+        assertEquals("alice", cached.getUsername());
+        assertEquals("", cached.getPassword());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(cached.getAuthorities()));
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void entryExpiresWithTokenWhenTokenExpiresBeforeTtl() {
+        JwtAuthCache cache = newCache(100);
+        cache.put("token-a", user("alice"), expiresIn(Duration.ofSeconds(10)));
+
+        clock.advance(Duration.ofMillis(9999));
+        assertNotNull(cache.get("token-a"));
+        clock.advance(Duration.ofMillis(1));
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void entryExpiresAfterTtlWhenTokenLivesLonger() {
+        JwtAuthCache cache = newCache(100);
+        cache.put("token-a", user("alice"), expiresIn(Duration.ofHours(1)));
+
+        clock.advance(Duration.ofMillis(299999));
+        assertNotNull(cache.get("token-a"));
+        clock.advance(Duration.ofMillis(1));
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void expiredTokenIsNotCached() {
+        JwtAuthCache cache = newCache(100);
+
+        UserDetails principal = cache.put("token-a", user("alice"), expiresIn(Duration.ofSeconds(-1)));
+
+        assertEquals("alice", principal.getUsername());
+        assertNull(cache.get("token-a"));
+        assertEquals(0, size());
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirst() {
+        JwtAuthCache cache = newCache(3);
+        cache.put("token-a", user("alice"), expiresIn(Duration.ofSeconds(10)));
+        cache.put("token-b", user("bob"), expiresIn(Duration.ofSeconds(10)));
+        cache.put("token-c", user("carol"), expiresIn(Duration.ofHours(1)));
+        clock.advance(Duration.ofSeconds(10));
+
+        cache.put("token-d", user("dave"), expiresIn(Duration.ofHours(1)));
+
+        assertEquals(2, size());
+        assertNotNull(cache.get("token-c"));
+        assertNotNull(cache.get("token-d"));
+    }
+
+    @Test
+    void fullCacheOfLiveEntriesStaysWithinMaxSize() {
+        JwtAuthCache cache = newCache(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, user("user" + i), expiresIn(Duration.ofHours(1)));
+        }
+
+        cache.put("token-new", user("newcomer"), expiresIn(Duration.ofHours(1)));
+
+        // Bỏ 1/10 entry cũ để nhận token mới
+        assertEquals(10, size());
+        assertNotNull(cache.get("token-new"));
+    }
+
+    @Test
+    void evictUserRemovesOnlyThatUsersTokens() {
+        JwtAuthCache cache = newCache(100);
+        cache.put("token-a1", user("alice"), expiresIn(Duration.ofHours(1)));
+        cache.put("token-a2", user("alice"), expiresIn(Duration.ofHours(1)));
+        cache.put("token-b", user("bob"), expiresIn(Duration.ofHours(1)));
+
+        cache.evictUser("alice");
+
+        assertNull(cache.get("token-a1"));
+        assertNull(cache.get("token-a2"));
+        assertNotNull(cache.get("token-b"));
+    }
+
+    private JwtAuthCache newCache(int maxSize) {
+        return new JwtAuthCache(maxSize, 300, meterRegistry, clock);
+    }
+
+    private Date expiresIn(Duration duration) {
+        return Date.from(clock.instant().plus(duration));
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("auth.jwt.cache", "result", result).count();
+    }
+
+    private double size() {
+        return meterRegistry.get("auth.jwt.cache.size").gauge().value();
+    }
+
+    private static UserDetails user(String username) {
+        return User.withUsername(username).password("{noop}secret").roles("USER").build();
+    }
+}
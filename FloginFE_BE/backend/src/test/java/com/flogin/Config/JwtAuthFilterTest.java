@@ -0,0 +1,101 @@
+package com.flogin.Config;
+
+import com.flogin.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthFilterTest {
+    static final String SECRET = "H3l1Y3dOqMvz71IGsTtRJo+z6ZJbBDezA1clo0uWpvmVa2TqZZIfWFlTCXAbA1XZ+ZkRX0GG1VoPZkAEXmNvNg==";
+
+    UserDetails alice = User.withUsername("alice").password("x").roles("USER").build();
+    JwtService jwtService = newJwtService();
+    JwtAuthFilter filter = newFilter();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void streamTokenInQueryAuthenticatesEventStream() throws Exception {
+        String token = jwtService.generateEventStreamToken("alice").getAccessToken();
+
+        Authentication auth = run(request("/products/events", null, token));
+
+        assertEquals("alice", auth.getName());
+    }
+
+    @Test
+    void streamTokenIsIgnoredOnOtherEndpoints() throws Exception {
+        String token = jwtService.generateEventStreamToken("alice").getAccessToken();
+
+        assertNull(run(request("/products", null, token)));
+        // Token SSE cũng không dùng được làm Bearer token
+        assertNull(run(request("/products", "Bearer " + token, null)));
+    }
+
+    @Test
+    void accessTokenIsNotAcceptedInQuery() throws Exception {
+        String token = jwtService.generateToken(alice);
+
+        assertNull(run(request("/products/events", null, token)));
+        assertEquals("alice", run(request("/products/events", "Bearer " + token, null)).getName());
+    }
+
+    private Authentication run(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        });
+        return seen.get();
+    }
+
+    private static MockHttpServletRequest request(String path, String authorization, String accessToken) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        if (accessToken != null) {
+            request.setParameter("access_token", accessToken);
+        }
+        return request;
+    }
+
+    private JwtService newJwtService() {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "JWT_SECRET", SECRET);
+        ReflectionTestUtils.setField(service, "JWT_EXPIRATION", 3600L);
+        ReflectionTestUtils.setField(service, "STREAM_TOKEN_EXPIRATION", 60L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    private JwtAuthFilter newFilter() {
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new JwtAuthFilter(jwtService, userDetailsService, new JwtAuthCache(100, 300, registry), registry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.flogin.Config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashExecutorTest {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    PasswordHashExecutor executor = new PasswordHashExecutor(1, 1, 3, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void rejectsWithRetryAfterWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<String> busy = executor.submit("login", () -> {
+            running.countDown();
+            await(release);
+            return "first";
+        });
+        running.await();
+        CompletableFuture<String> queued = executor.submit("login", () -> "second");
+
+        ServiceBusyException rejected = assertThrows(ServiceBusyException.class,
+                () -> executor.submit("register", () -> "third"));
+
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+        release.countDown();
+        assertEquals("first", busy.join());
+        assertEquals("second", queued.join());
+    }
+
+    @Test
+    void reusesOneTimerPerOperation() {
+        for (int i = 0; i < 5; i++) {
+            executor.submit("login", () -> 1).join();
+            executor.submit("register", () -> 1).join();
+        }
+
+        assertEquals(2, meterRegistry.get("auth.password.hash").timers().size());
+        assertEquals(5, meterRegistry.get("auth.password.hash").tag("op", "login").timer().count());
+        assertThrows(IllegalArgumentException.class, () -> executor.submit("reset", () -> 1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.flogin.Config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryTracingDataSourceTest {
+    QueryTracingDataSource dataSource = new QueryTracingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:query-trace;DB_CLOSE_DELAY=-1", "sa", ""), 200);
+
+    @AfterEach
+    void tearDown() {
+        QueryTracker.clear();
+    }
+
+    @Test
+    void executesAreCountedForCurrentRequest() throws Exception {
+        QueryTracker.Stats stats = QueryTracker.start();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             PreparedStatement prepared = connection.prepareStatement("SELECT ?")) {
+            statement.execute("SELECT 1");
+            prepared.setInt(1, 2);
+            try (ResultSet rs = prepared.executeQuery()) {
+                rs.next();
+            }
+        }
+
+        assertEquals(2, stats.getCount());
+    }
+
+    @Test
+    void objectMethodsAreAnsweredByTheProxy() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Connection other = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            assertEquals(connection, connection);
+            assertNotEquals(connection, other);
+            assertEquals(statement, statement);
+            assertEquals(System.identityHashCode(statement), statement.hashCode());
+            // Dùng được làm key trong HashSet như connection thường
+            Set<Connection> connections = new HashSet<>(Set.of(connection, other));
+            assertTrue(connections.contains(connection));
+            assertTrue(connection.toString().startsWith("Traced["));
+        }
+    }
+}
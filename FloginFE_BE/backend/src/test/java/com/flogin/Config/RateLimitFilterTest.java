@@ -0,0 +1,126 @@
+package com.flogin.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+    RateLimitFilter filter = new RateLimitFilter(
+            new RateLimitProperties(true, 100, new RateLimitProperties.Policy(100, 1),
+                    new RateLimitProperties.Policy(1, 0.001), new RateLimitProperties.Policy(100, 1)),
+            new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void usernameLimitAppliesAcrossIpsAndReturns429() throws Exception {
+        AtomicReference<String> forwardedBody = new AtomicReference<>();
+        MockHttpServletResponse first = login("10.0.0.1", "{\"username\":\"Alice\",\"password\":\"x\"}", forwardedBody);
+        MockHttpServletResponse second = login("10.0.0.2", "{\"username\":\"alice\",\"password\":\"y\"}", forwardedBody);
+
+        assertEquals(200, first.getStatus());
+        assertEquals("0", first.getHeader("X-RateLimit-Remaining"));
+        assertEquals(429, second.getStatus());
+        assertEquals("1", second.getHeader("X-RateLimit-Limit"));
+        assertEquals("1000", second.getHeader("Retry-After"));
+        // Request bị chặn không tới controller
+        assertEquals("{\"username\":\"Alice\",\"password\":\"x\"}", forwardedBody.get());
+    }
+
+    @Test
+    void bodyWithoutContentLengthIsStillLimitedAndReplayed() throws Exception {
+        AtomicReference<String> forwardedBody = new AtomicReference<>();
+        MockHttpServletRequest request = loginRequest("10.0.0.1", "{\"username\":\"bob\"}");
+        MockHttpServletRequest chunked = new MockHttpServletRequest() {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setMethod(request.getMethod());
+        chunked.setServletPath(request.getServletPath());
+        chunked.setRemoteAddr(request.getRemoteAddr());
+        chunked.setContent(request.getContentAsByteArray());
+
+        filter.doFilter(chunked, new MockHttpServletResponse(), (req, res) ->
+                forwardedBody.set(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)));
+        MockHttpServletResponse second = login("10.0.0.2", "{\"username\":\"bob\"}", new AtomicReference<>());
+
+        assertEquals("{\"username\":\"bob\"}", forwardedBody.get());
+        assertEquals(429, second.getStatus());
+    }
+
+    @Test
+    void replayedBodyCanBeReadAsynchronously() throws Exception {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        List<String> callbacks = new ArrayList<>();
+
+        filter.doFilter(loginRequest("10.0.0.1", "{\"username\":\"carol\"}"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    ServletInputStream input = req.getInputStream();
+                    input.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            callbacks.add("data");
+                            byte[] buffer = new byte[4];
+                            int read;
+                            while (input.isReady() && (read = input.read(buffer)) != -1) {
+                                received.write(buffer, 0, read);
+                            }
+                        }
+
+                        @Override
+                        public void onAllDataRead() {
+                            callbacks.add("done");
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            callbacks.add("error");
+                        }
+                    });
+                });
+
+        assertEquals(List.of("data", "done"), callbacks);
+        assertEquals("{\"username\":\"carol\"}", received.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void oversizedAuthBodyIsRejectedWith413() throws Exception {
+        AtomicReference<String> forwardedBody = new AtomicReference<>();
+        MockHttpServletResponse response = login("10.0.0.1", "{\"username\":\"" + "a".repeat(9000) + "\"}",
+                forwardedBody);
+
+        assertEquals(413, response.getStatus());
+        assertNull(forwardedBody.get());
+    }
+
+    private MockHttpServletResponse login(String ip, String body, AtomicReference<String> forwardedBody)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(ip, body), response, (req, res) ->
+                forwardedBody.set(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
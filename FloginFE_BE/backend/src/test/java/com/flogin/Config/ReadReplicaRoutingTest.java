@@ -0,0 +1,134 @@
+package com.flogin.Config;
+
+import com.flogin.entity.Category;
+import com.flogin.repository.CategoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.docker.compose.enabled=false",
+        "app.product-cache.enabled=false",
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.routing.replicas[0].username=sa",
+        "app.datasource.routing.replicas[0].password=",
+        "app.datasource.routing.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.datasource.routing.max-lag-seconds=3",
+        // Test tự gọi checkReplicas()
+        "app.datasource.routing.lag-check-interval=1h",
+        "app.datasource.routing.stickiness=1h"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    ReadReplicaRouting readReplicaRouting;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        // Replica "thật" được đồng bộ schema từ primary; ở đây chép schema bằng SCRIPT của H2
+        Integer tables = replica.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'CATEGORIES'", Integer.class);
+        if (tables == 0) {
+            for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+                replica.execute(statement);
+            }
+            replica.execute("CREATE TABLE replica_lag (lag_seconds INT)");
+            replica.execute("INSERT INTO replica_lag VALUES (0)");
+        }
+        replica.update("UPDATE replica_lag SET lag_seconds = 0");
+        replica.update("DELETE FROM categories WHERE name = 'Replica only'");
+        replica.update("INSERT INTO categories (name) VALUES ('Replica only')");
+        readReplicaRouting.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertTrue(names().contains("Replica only"));
+    }
+
+    @Test
+    void readsStickToPrimaryAfterUserWrites() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("writer", null, "ROLE_USER"));
+
+        categoryRepository.save(new Category("Written by writer"));
+
+        List<String> names = names();
+        assertTrue(names.contains("Written by writer"));
+        assertFalse(names.contains("Replica only"));
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotation() {
+        replica.update("UPDATE replica_lag SET lag_seconds = 60");
+        readReplicaRouting.checkReplicas();
+
+        assertFalse(names().contains("Replica only"));
+    }
+
+    @Test
+    void updateInsideRequestWritesToPrimary() throws Exception {
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.update("DELETE FROM products WHERE id = 9001");
+            db.update("DELETE FROM categories WHERE id = 9001");
+            db.update("INSERT INTO categories (id, name) VALUES (9001, 'Routing')");
+            db.update("INSERT INTO products (id, name, price, quantity, description, category_id) "
+                    + "VALUES (9001, 'Before', 10, 1, '', 9001)");
+        }
+
+        // findById (đọc) rồi save (ghi) trong cùng một request: cả hai phải đi primary
+        mockMvc.perform(put("/products/9001").with(user("editor"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"productName":"After","price":20,"quantity":2,"description":"","category_id":9001}
+                                """))
+                .andExpect(status().isOk());
+
+        assertEquals("After", primary.queryForObject("SELECT name FROM products WHERE id = 9001", String.class));
+        assertEquals("Before", replica.queryForObject("SELECT name FROM products WHERE id = 9001", String.class));
+    }
+
+    private List<String> names() {
+        return categoryRepository.findAll().stream().map(Category::getName).toList();
+    }
+}
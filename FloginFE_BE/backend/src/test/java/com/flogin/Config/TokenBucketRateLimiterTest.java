@@ -0,0 +1,51 @@
+package com.flogin.Config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void allowsBurstThenThrottlesWithRetryAfter() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 0.5, 100);
+
+        assertEquals(2, limiter.tryAcquire("alice").remaining());
+        assertEquals(1, limiter.tryAcquire("alice").remaining());
+        assertEquals(0, limiter.tryAcquire("alice").remaining());
+        TokenBucketRateLimiter.Result throttled = limiter.tryAcquire("alice");
+
+        assertFalse(throttled.allowed());
+        assertEquals(2, throttled.retryAfterSeconds());
+        // Key khác có bucket riêng
+        assertTrue(limiter.tryAcquire("bob").allowed());
+    }
+
+    @Test
+    void fullTableEvictsSingleUseKeysFirst() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 0.001, 2);
+        limiter.tryAcquire("heavy");
+        limiter.tryAcquire("heavy");
+        limiter.tryAcquire("sprayed");
+
+        // "sprayed" chỉ nợ một token nên bị bỏ để "new" có bucket riêng
+        assertEquals(1, limiter.tryAcquire("new").remaining());
+        assertEquals(2, limiter.size());
+        assertFalse(limiter.tryAcquire("heavy").allowed());
+    }
+
+    @Test
+    void keysBeyondMaxShareOverflowShards() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 0.001, 2);
+        for (String key : new String[]{"a", "b"}) {
+            limiter.tryAcquire(key);
+            limiter.tryAcquire(key);
+        }
+
+        assertTrue(limiter.tryAcquire("c").allowed());
+        assertEquals(3, limiter.size());
+        assertFalse(limiter.tryAcquire("a").allowed());
+    }
+}
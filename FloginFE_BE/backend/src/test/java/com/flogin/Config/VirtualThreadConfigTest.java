@@ -0,0 +1,58 @@
+package com.flogin.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VirtualThreadConfigTest {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void hikariPoolIsLimitedToItsMaximumPoolSize() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(7);
+
+        Object bean = postProcessor(new MockEnvironment()).postProcessAfterInitialization(pool, "dataSource");
+
+        ConcurrencyLimitedDataSource limited = assertInstanceOf(ConcurrencyLimitedDataSource.class, bean);
+        assertEquals(7, limited.availablePermits());
+        assertEquals(7, meterRegistry.get("db.concurrency.available").gauge().value());
+    }
+
+    @Test
+    void concurrencyLimitPropertyOverridesPoolSize() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(7);
+        MockEnvironment environment = new MockEnvironment().withProperty("app.db.concurrency-limit", "3");
+
+        Object bean = postProcessor(environment).postProcessAfterInitialization(pool, "dataSource");
+
+        assertEquals(3, ((ConcurrencyLimitedDataSource) bean).availablePermits());
+    }
+
+    @Test
+    void otherDataSourcesAreLeftAlone() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:other", "sa", "");
+
+        Object bean = postProcessor(new MockEnvironment()).postProcessAfterInitialization(dataSource, "routing");
+
+        assertSame(dataSource, bean);
+    }
+
+    private BeanPostProcessor postProcessor(MockEnvironment environment) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        return VirtualThreadConfig.dataSourceConcurrencyLimiter(environment,
+                beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+}
@@ -0,0 +1,98 @@
+package com.flogin.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.dto.category.CategoryResponseDTO;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.service.CategoryChangedEvent;
+import com.flogin.service.ChangeType;
+import com.flogin.service.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProductJsonCacheTest {
+    ObjectMapper objectMapper = new ObjectMapper();
+    MutableClock clock = new MutableClock();
+    ProductJsonCache cache = new ProductJsonCache(objectMapper, true, 100, 5000, new SimpleMeterRegistry(), clock);
+
+    @Test
+    void listBytesMatchJacksonAndSeedItemEntries() throws Exception {
+        List<ProductResponseDTO> products = List.of(product(1L, "Laptop"), product(2L, "Chuột"));
+
+        ProductJsonCache.Json list = cache.getAllProducts(() -> products);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(products), list.body());
+        assertEquals(ContentEtag.of(list.body()), list.etag());
+        assertSame(list, cache.getAllProducts(() -> {
+            throw new AssertionError("cache hit không được gọi loader");
+        }));
+        assertArrayEquals(objectMapper.writeValueAsBytes(products.get(1)), cache.getProduct(2L, () -> {
+            throw new AssertionError("entry đã được nạp từ danh sách");
+        }).body());
+    }
+
+    @Test
+    void writesInvalidateCachedBytes() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        cache.onProductChanged(new ProductChangedEvent(1L, product(1L, "Laptop Pro")));
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+        cache.onCategoryChanged(new CategoryChangedEvent(1L, null, ChangeType.DELETED));
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void writeDuringLoadIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getProduct(1L, () -> {
+            loads.incrementAndGet();
+            // Ghi commit trong lúc loader đang đọc: dữ liệu vừa đọc có thể đã cũ
+            cache.onProductChanged(new ProductChangedEvent(1L, product(1L, "Laptop Pro")));
+            return product(1L, "Laptop");
+        });
+        cache.getAllProducts(() -> {
+            loads.incrementAndGet();
+            cache.onProductChanged(new ProductChangedEvent(2L, product(2L, "Chuột")));
+            return List.of(product(1L, "Laptop"));
+        });
+
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+        cache.getAllProducts(() -> {
+            loads.incrementAndGet();
+            return List.of(product(1L, "Laptop Pro"));
+        });
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void entriesExpireAfterNearTtl() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+        clock.advance(Duration.ofMillis(4999));
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        clock.advance(Duration.ofMillis(1));
+        cache.getProduct(1L, () -> product(1L, "Laptop " + loads.incrementAndGet()));
+
+        assertEquals(2, loads.get());
+    }
+
+    private static ProductResponseDTO product(Long id, String name) {
+        return new ProductResponseDTO(id, name, BigDecimal.TEN, 5, "", new CategoryResponseDTO("Điện tử"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.flogin.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.dto.category.CategoryResponseDTO;
+import com.flogin.dto.product.ProductResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductReadCacheTest {
+    MutableClock clock = new MutableClock();
+    InMemoryRemoteCacheClient remoteCache;
+    ProductReadCache productReadCache;
+
+    @BeforeEach
+    void setUp() {
+        remoteCache = new InMemoryRemoteCacheClient();
+        productReadCache = newCache(remoteCache);
+    }
+
+    @Test
+    void getProductLoadsOnceUnderConcurrentMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<ProductResponseDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> productReadCache.getProduct(1L, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return product(1L, "Laptop");
+            })));
+        }
+        // Các thread còn lại hoặc chờ leader, hoặc tới sau và đọc từ cache: không thread nào load lần hai
+        loading.await();
+        release.countDown();
+        for (Future<ProductResponseDTO> future : futures) {
+            assertEquals("Laptop", future.get().getProductName());
+        }
+        executor.shutdown();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void remoteTierIsSharedBetweenReplicas() {
+        productReadCache.getProduct(1L, () -> product(1L, "Laptop"));
+        ProductReadCache otherReplica = newCache(remoteCache);
+
+        ProductResponseDTO fromRemote = otherReplica.getProduct(1L, () -> {
+            throw new AssertionError("không được query DB khi remote đã có");
+        });
+
+        assertEquals("Laptop", fromRemote.getProductName());
+    }
+
+    @Test
+    void evictProductRemovesBothTiers() {
+        productReadCache.getProduct(1L, () -> product(1L, "Laptop"));
+        productReadCache.evictProduct(1L);
+
+        assertEquals("Laptop Pro", productReadCache.getProduct(1L, () -> product(1L, "Laptop Pro")).getProductName());
+        assertTrue(remoteCache.get("product:1").orElseThrow().contains("Laptop Pro"));
+    }
+
+    @Test
+    void nearEntriesExpireAfterNearTtl() {
+        productReadCache.getProduct(1L, () -> product(1L, "Laptop"));
+        // Replica khác đã ghi và nạp lại tầng remote
+        ProductReadCache otherReplica = newCache(remoteCache);
+        otherReplica.evictProduct(1L);
+        otherReplica.getProduct(1L, () -> product(1L, "Laptop Pro"));
+
+        clock.advance(Duration.ofMillis(4999));
+        assertEquals("Laptop", productReadCache.getProduct(1L, () -> product(1L, "DB")).getProductName());
+        clock.advance(Duration.ofMillis(1));
+        assertEquals("Laptop Pro", productReadCache.getProduct(1L, () -> product(1L, "DB")).getProductName());
+    }
+
+    @Test
+    void callerChangesDoNotLeakIntoCache() {
+        ProductResponseDTO loaded = productReadCache.getProduct(1L, () -> product(1L, "Laptop"));
+        loaded.setProductName("Đã sửa");
+        ProductResponseDTO cached = productReadCache.getProduct(1L, () -> product(1L, "DB"));
+        cached.getCategory().setName("Đã sửa");
+        List<ProductResponseDTO> all = productReadCache.getAllProducts(() -> new ArrayList<>(List.of(product(1L, "Laptop"))));
+        all.get(0).setPrice(BigDecimal.ONE);
+        all.clear();
+
+        ProductResponseDTO again = productReadCache.getProduct(1L, () -> product(1L, "DB"));
+        assertEquals("Laptop", again.getProductName());
+        assertEquals("Điện tử", again.getCategory().getName());
+        assertNotSame(cached, again);
+        List<ProductResponseDTO> allAgain = productReadCache.getAllProducts(() -> List.of());
+        assertEquals(1, allAgain.size());
+        assertEquals(BigDecimal.TEN, allAgain.get(0).getPrice());
+    }
+
+    private ProductReadCache newCache(RemoteCacheClient remoteCache) {
+        return new ProductReadCache(remoteCache, new ObjectMapper(), true, 5000, 100, 60, new SimpleMeterRegistry(),
+                clock);
+    }
+
+    private static ProductResponseDTO product(Long id, String name) {
+        return new ProductResponseDTO(id, name, BigDecimal.TEN, 1, "", new CategoryResponseDTO("Điện tử"));
+    }
+}
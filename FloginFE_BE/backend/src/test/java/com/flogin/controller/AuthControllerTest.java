@@ -0,0 +1,69 @@
+package com.flogin.controller;
+
+import com.flogin.Config.PasswordHashExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-controller;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.docker.compose.enabled=false",
+        "app.rate-limit.enabled=false",
+        "app.security.hash-executor.threads=1",
+        "app.security.hash-executor.queue-capacity=1",
+        "app.security.hash-executor.retry-after-seconds=2"
+})
+@AutoConfigureMockMvc
+class AuthControllerTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    PasswordHashExecutor passwordHashExecutor;
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void loginAnswers503WithRetryAfterWhenHashQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        // Chiếm thread duy nhất và chỗ duy nhất trong hàng đợi
+        passwordHashExecutor.submit("login", () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        running.await();
+        passwordHashExecutor.submit("login", () -> null);
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin123\",\"password\":\"admin123\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.message").value("Hệ thống đang bận, vui lòng thử lại sau"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.flogin.controller;
+
+import com.flogin.entity.Category;
+import com.flogin.entity.Product;
+import com.flogin.repository.CategoryRepository;
+import com.flogin.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.docker.compose.enabled=false",
+        "app.query-trace.enabled=true",
+        "app.query-trace.fail-on-budget=true",
+        "app.product-cache.enabled=false",
+        "app.product-json-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class ProductControllerQueryBudgetTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        for (int i = 0; i < 10; i++) {
+            Category category = categoryRepository.save(new Category("Category " + i));
+            productRepository.save(new Product("Product " + i, BigDecimal.ONE, i, "", category));
+        }
+    }
+
+    @Test
+    void getAllProductRunsOneQuery() throws Exception {
+        mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Query-Count", "1"));
+    }
+
+    @Test
+    void exportStreamsEveryProductAsNdjson() throws Exception {
+        String body = mockMvc.perform(get("/products/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(10, body.lines().count());
+    }
+
+    @Test
+    void unchangedProductListIsAnsweredWith304() throws Exception {
+        String etag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/products").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Product product = productRepository.findAll().get(0);
+        product.setQuantity(product.getQuantity() + 1);
+        productRepository.save(product);
+
+        mockMvc.perform(get("/products").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getProductPageRunsOneQuery() throws Exception {
+        mockMvc.perform(get("/products/page").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Query-Count", "1"));
+    }
+}
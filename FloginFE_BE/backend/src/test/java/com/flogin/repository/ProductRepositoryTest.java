@@ -0,0 +1,180 @@
+package com.flogin.repository;
+
+import com.flogin.dto.product.ProductSummaryDTO;
+import com.flogin.entity.Category;
+import com.flogin.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(ProductRepositoryTest.SqlCaptureConfig.class)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductRepositoryTest {
+    private static final int PRODUCT_COUNT = 25;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    SqlCapture sqlCapture;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Category category = testEntityManager.persist(new Category("Category " + i));
+            testEntityManager.persist(new Product("Product " + i, BigDecimal.TEN, i, "", category));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllWithCategory() {
+        List<Product> products = productRepository.findAllWithCategory();
+        products.forEach(product -> product.getCategory().getName());
+
+        assertEquals(PRODUCT_COUNT, products.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithCategoryById() {
+        Long id = productRepository.findAllWithCategory().get(0).getId();
+        testEntityManager.clear();
+        statistics.clear();
+
+        productRepository.findWithCategoryById(id).orElseThrow().getCategory().getName();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamAllByWorksOnNonMySqlDriver() {
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            assertEquals(PRODUCT_COUNT, products.map(product -> product.getCategory().getName()).count());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findSummariesByCategoryReadsProjectionInOneStatement() {
+        Long categoryId = productRepository.findAllWithCategory().get(3).getCategory().getId();
+        statistics.clear();
+
+        List<ProductSummaryDTO> summaries = productRepository.findSummariesByCategory(categoryId,
+                BigDecimal.ZERO, BigDecimal.valueOf(100), 1, Limit.of(10));
+
+        assertEquals(1, summaries.size());
+        assertEquals("Category 3", summaries.get(0).getCategoryName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    // EXPLAIN đúng câu SQL Hibernate sinh ra cho repository, nên đổi câu JPQL mà mất index thì test hỏng
+    @Test
+    void filterByCategoryAndPriceUsesCompositeIndex() {
+        Long categoryId = productRepository.findAllWithCategory().get(3).getCategory().getId();
+        sqlCapture.clear();
+
+        productRepository.findSummariesByCategory(categoryId, BigDecimal.ZERO, BigDecimal.valueOf(100), 1,
+                Limit.of(10));
+
+        String plan = explain(sqlCapture.single(), categoryId, 0, 100, 1, 10);
+        assertTrue(plan.contains("IDX_PRODUCTS_CATEGORY_PRICE"), plan);
+    }
+
+    @Test
+    void filterByPriceUsesPriceIndex() {
+        sqlCapture.clear();
+
+        productRepository.findSummaries(BigDecimal.valueOf(5), BigDecimal.valueOf(20), 0, Limit.of(10));
+
+        String plan = explain(sqlCapture.single(), 5, 20, 0, 10);
+        assertTrue(plan.contains("IDX_PRODUCTS_PRICE"), plan);
+    }
+
+    // Thay lần lượt từng tham số ? bằng giá trị đã truyền vào repository
+    private String explain(String sql, Object... parameters) {
+        StringBuilder bound = new StringBuilder();
+        int next = 0;
+        for (char ch : sql.toCharArray()) {
+            if (ch == '?') {
+                bound.append(parameters[next++]);
+            } else {
+                bound.append(ch);
+            }
+        }
+        assertEquals(parameters.length, next, sql);
+        Object plan = testEntityManager.getEntityManager().createNativeQuery("EXPLAIN " + bound).getSingleResult();
+        return plan.toString().toUpperCase(Locale.ROOT);
+    }
+
+    // Ghi lại câu SQL Hibernate gửi xuống JDBC
+    static class SqlCapture implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        String single() {
+            assertEquals(1, statements.size(), statements::toString);
+            return statements.get(0);
+        }
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+}
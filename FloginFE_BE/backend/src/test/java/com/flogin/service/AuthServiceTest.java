@@ -1,16 +1,73 @@
 package com.flogin.service;
 
+import com.flogin.Config.JwtAuthCache;
+import com.flogin.Config.PasswordHash;
+import com.flogin.Config.PasswordHashExecutor;
+import com.flogin.dto.login.LoginRequestDTO;
+import com.flogin.entity.User;
+import com.flogin.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 class AuthServiceTest {
+    UserRepository userRepository;
+    JwtService jwtService;
+    JwtAuthCache jwtAuthCache;
+    PasswordEncoder passwordEncoder;
+    PasswordHashExecutor passwordHashExecutor;
+    AuthService authService;
 
     @BeforeEach
     void setUp() {
+        userRepository = mock(UserRepository.class);
+        jwtService = mock(JwtService.class);
+        jwtAuthCache = mock(JwtAuthCache.class);
+        passwordEncoder = spy(new PasswordHash().passwordEncoder(4));
+        passwordHashExecutor = new PasswordHashExecutor(1, 1, 1, new SimpleMeterRegistry());
+        authService = new AuthService(passwordEncoder, userRepository, jwtService, jwtAuthCache, passwordHashExecutor);
+        when(jwtService.generateToken(any())).thenReturn("token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashExecutor.destroy();
     }
 
     @Test
     void login() {
+        User user = new User("Admin", "admin123", new BCryptPasswordEncoder(4).encode("admin123"));
+        when(userRepository.findByUsername("admin123")).thenReturn(Optional.of(user));
+
+        assertEquals("token", authService.login(loginRequest("admin123", "admin123")).join().getAccessToken());
+
+        verify(userRepository, times(1)).findByUsername("admin123");
+        verify(passwordEncoder, times(1)).matches(any(), any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void loginRehashesWhenCostDiffers() {
+        String oldHash = new BCryptPasswordEncoder(5).encode("admin123");
+        User user = new User("Admin", "admin123", oldHash);
+        when(userRepository.findByUsername("admin123")).thenReturn(Optional.of(user));
+
+        authService.login(loginRequest("admin123", "admin123")).join();
+
+        assertNotEquals(oldHash, user.getPassword());
+        assertEquals("$2a$04$", user.getPassword().substring(0, 7));
+        verify(userRepository).save(user);
+        verify(jwtAuthCache).evictUser("admin123");
     }
 
     @Test
@@ -20,4 +77,11 @@ class AuthServiceTest {
     @Test
     void getUserByUsername() {
     }
-}
\ No newline at end of file
+
+    private static LoginRequestDTO loginRequest(String username, String password) {
+        LoginRequestDTO request = new LoginRequestDTO();
+        request.setUsername(username);
+        request.setPassword(password);
+        return request;
+    }
+}
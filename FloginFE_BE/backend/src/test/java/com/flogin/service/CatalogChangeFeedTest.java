@@ -0,0 +1,168 @@
+package com.flogin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flogin.dto.product.ProductResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CatalogChangeFeedTest {
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    CatalogEventStream streamA;
+    CatalogEventStream streamB;
+    CategoryCache categoryCache = mock(CategoryCache.class);
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:catalog-feed;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS catalog_changes");
+        jdbcTemplate.execute("CREATE TABLE catalog_changes (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "event_type VARCHAR(20) NOT NULL, payload VARCHAR(4000) NOT NULL, created_at BIGINT NOT NULL)");
+        streamA = newStream();
+        streamB = newStream();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamA.destroy();
+        streamB.destroy();
+    }
+
+    @Test
+    void changeWrittenOnOneInstanceReachesSubscribersOfAnother() throws Exception {
+        CatalogChangeFeed feedA = newFeed(streamA);
+        CatalogChangeFeed feedB = newFeed(streamB);
+        feedA.tick();
+        feedB.tick();
+        RecordingEmitter onB = new RecordingEmitter();
+        streamB.subscribe(null, onB);
+
+        feedA.onProductChanged(new ProductChangedEvent(5L, product(5L), ChangeType.CREATED));
+        feedA.onCategoryChanged(new CategoryChangedEvent(2L, null, ChangeType.DELETED));
+        feedA.tick();
+        feedB.tick();
+
+        assertEquals("0 ready", onB.next());
+        assertEquals("1 product", onB.next());
+        assertEquals("2 category", onB.next());
+
+        // Cùng id trên mọi instance: client nối lại ở instance A bằng id nhận từ B
+        RecordingEmitter onA = new RecordingEmitter();
+        streamA.subscribe("1", onA);
+        assertEquals("2 category", onA.next());
+    }
+
+    @Test
+    void categoryChangeFromAnotherInstanceInvalidatesCategoryCache() {
+        CatalogChangeFeed feedA = newFeed(streamA);
+        CatalogChangeFeed feedB = newFeed(streamB);
+        feedA.tick();
+        feedB.tick();
+
+        feedA.onProductChanged(new ProductChangedEvent(5L, product(5L), ChangeType.UPDATED));
+        feedA.tick();
+        feedB.tick();
+        verify(categoryCache, never()).invalidate();
+
+        feedA.onCategoryChanged(new CategoryChangedEvent(2L, "Phone", ChangeType.CREATED));
+        feedA.tick();
+        verify(categoryCache).invalidate();
+        feedB.tick();
+        verify(categoryCache, times(2)).invalidate();
+    }
+
+    @Test
+    void restartedInstanceLoadsRecentChangesForResume() throws Exception {
+        CatalogChangeFeed feedA = newFeed(streamA);
+        feedA.tick();
+        for (long id = 1; id <= 3; id++) {
+            feedA.onProductChanged(new ProductChangedEvent(id, product(id), ChangeType.UPDATED));
+        }
+        feedA.tick();
+
+        CatalogChangeFeed feedB = newFeed(streamB);
+        feedB.tick();
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamB.subscribe("1", emitter);
+
+        assertEquals("2 product", emitter.next());
+        assertEquals("3 product", emitter.next());
+    }
+
+    @Test
+    void rowsAfterAGapWaitForItUntilGapTimeout() {
+        CatalogEventStream stream = mock(CatalogEventStream.class);
+        CatalogChangeFeed feed = newFeed(stream);
+        feed.tick();
+
+        feed.deliver(List.of(change(1), change(3)), 1000);
+        verify(stream).publish(1, "product", "{}");
+        verify(stream, never()).publish(3, "product", "{}");
+
+        // Id 2 commit muộn: phát theo đúng thứ tự
+        feed.deliver(List.of(change(2), change(3), change(5)), 2000);
+        var order = inOrder(stream);
+        order.verify(stream).publish(2, "product", "{}");
+        order.verify(stream).publish(3, "product", "{}");
+        verify(stream, never()).publish(5, "product", "{}");
+
+        // Id 4 không bao giờ xuất hiện (rollback): bỏ qua sau gap-timeout-ms
+        feed.deliver(List.of(change(5)), 6999);
+        verify(stream, never()).publish(5, "product", "{}");
+        feed.deliver(List.of(change(5)), 7000);
+        verify(stream).publish(5, "product", "{}");
+    }
+
+    @Test
+    void failedWriteIsRetriedOnNextTick() throws Exception {
+        CatalogChangeFeed feed = newFeed(streamA);
+        feed.tick();
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamA.subscribe(null, emitter);
+        jdbcTemplate.execute("ALTER TABLE catalog_changes RENAME TO catalog_changes_off");
+
+        feed.onProductChanged(new ProductChangedEvent(1L, product(1L), ChangeType.CREATED));
+        feed.tick();
+        jdbcTemplate.execute("ALTER TABLE catalog_changes_off RENAME TO catalog_changes");
+        feed.tick();
+
+        assertEquals("0 ready", emitter.next());
+        assertEquals("1 product", emitter.next());
+    }
+
+    private CatalogChangeFeed newFeed(CatalogEventStream stream) {
+        return new CatalogChangeFeed(jdbcTemplate, transactionTemplate, new ObjectMapper(), stream, categoryCache,
+                10, 250, 5000, 3600000, 500, 100, new SimpleMeterRegistry());
+    }
+
+    private static CatalogEventStream newStream() {
+        return new CatalogEventStream(10, 100, 100, 60000, 3600, new SimpleMeterRegistry());
+    }
+
+    private static CatalogChangeFeed.Change change(long id) {
+        return new CatalogChangeFeed.Change(id, "product", "{}");
+    }
+
+    private static ProductResponseDTO product(Long id) {
+        return new ProductResponseDTO(id, "Laptop " + id, new BigDecimal("1500"), 5, "", null);
+    }
+}
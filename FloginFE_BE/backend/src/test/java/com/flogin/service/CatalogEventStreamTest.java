@@ -0,0 +1,155 @@
+package com.flogin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CatalogEventStreamTest {
+    CatalogEventStream stream;
+
+    @AfterEach
+    void tearDown() {
+        stream.destroy();
+    }
+
+    @Test
+    void newSubscriberGetsReadyThenLiveEvents() throws Exception {
+        stream = newStream(10, 100);
+        stream.open(7);
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(null, emitter);
+
+        stream.publish(8, "product", "{}");
+
+        assertEquals("7 ready", emitter.next());
+        assertEquals("8 product", emitter.next());
+    }
+
+    @Test
+    void resumeReplaysEventsAfterLastEventId() throws Exception {
+        stream = newStream(10, 100);
+        stream.open(0);
+        stream.publish(1, "product", "{}");
+        stream.publish(2, "category", "{}");
+        stream.publish(3, "product", "{}");
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        stream.subscribe("1", emitter);
+        stream.publish(4, "product", "{}");
+
+        assertEquals("2 category", emitter.next());
+        assertEquals("3 product", emitter.next());
+        assertEquals("4 product", emitter.next());
+    }
+
+    @Test
+    void lastEventIdOutsideBufferGetsResync() throws Exception {
+        stream = newStream(2, 100);
+        stream.open(0);
+        for (long id = 1; id <= 5; id++) {
+            stream.publish(id, "product", "{}");
+        }
+        RecordingEmitter stale = new RecordingEmitter();
+        RecordingEmitter invalid = new RecordingEmitter();
+        RecordingEmitter resumable = new RecordingEmitter();
+
+        stream.subscribe("2", stale);
+        stream.subscribe("abc", invalid);
+        stream.subscribe("3", resumable);
+
+        assertEquals("5 resync", stale.next());
+        assertEquals("5 resync", invalid.next());
+        assertEquals("4 product", resumable.next());
+        assertEquals("5 product", resumable.next());
+    }
+
+    @Test
+    void lastEventIdIsResyncedUntilFeedIsOpen() throws Exception {
+        stream = newStream(10, 100);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        stream.subscribe("42", emitter);
+
+        assertEquals("0 resync", emitter.next());
+    }
+
+    @Test
+    void idsAlreadySeenOnAnotherInstanceAreSkipped() throws Exception {
+        stream = newStream(10, 100);
+        stream.open(0);
+        stream.publish(1, "product", "{}");
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Client đã nhận tới id 3 từ instance khác, instance này mới phát tới 1
+        stream.subscribe("3", emitter);
+        stream.publish(2, "product", "{}");
+        stream.publish(3, "product", "{}");
+        stream.publish(4, "product", "{}");
+
+        assertEquals("4 product", emitter.next());
+        assertNull(emitter.poll());
+    }
+
+    @Test
+    void slowSubscriberOverflowCollapsesIntoOneResync() throws Exception {
+        stream = newStream(100, 2);
+        stream.open(0);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        stream.subscribe(null, slow);
+        stream.subscribe(null, fast);
+        slow.sending.await();
+
+        for (long id = 1; id <= 5; id++) {
+            stream.publish(id, "product", "{}");
+        }
+        release.countDown();
+
+        // "ready" đang gửi thì hàng đợi đầy: các event chờ bị bỏ, còn một resync mang id mới nhất
+        assertEquals("0 ready", slow.next());
+        assertEquals("5 resync", slow.next());
+        // Chỉ phát tiếp khi resync đã gửi xong, nếu không id 6 sẽ gộp vào resync đang chờ
+        stream.publish(6, "product", "{}");
+        assertEquals("6 product", slow.next());
+        assertNull(slow.poll());
+        assertEquals("0 ready", fast.next());
+        for (long id = 1; id <= 6; id++) {
+            assertEquals(id + " product", fast.next());
+        }
+    }
+
+    @Test
+    void everySubscriberReceivesEventsInPublishOrder() throws Exception {
+        stream = newStream(1000, 1000);
+        stream.open(0);
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            stream.subscribe(null, emitter);
+            emitters.add(emitter);
+        }
+
+        for (long id = 1; id <= 300; id++) {
+            stream.publish(id, id % 2 == 0 ? "product" : "category", "{}");
+        }
+
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals("0 ready", emitter.next());
+            for (long id = 1; id <= 300; id++) {
+                assertEquals(id + (id % 2 == 0 ? " product" : " category"), emitter.next());
+            }
+        }
+    }
+
+    private static CatalogEventStream newStream(int bufferSize, int queueCapacity) {
+        return new CatalogEventStream(bufferSize, queueCapacity, 100, 60000, 3600, new SimpleMeterRegistry());
+    }
+}
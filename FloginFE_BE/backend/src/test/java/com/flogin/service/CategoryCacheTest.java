@@ -0,0 +1,141 @@
+package com.flogin.service;
+
+import com.flogin.cache.MutableClock;
+import com.flogin.entity.Category;
+import com.flogin.repository.CategoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryCacheTest {
+    MutableClock clock = new MutableClock();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    List<Category> categories = new ArrayList<>();
+    CategoryCache categoryCache;
+
+    @BeforeEach
+    void setUp() {
+        categories.add(category(1L, "Điện tử"));
+        categories.add(category(2L, "Sách"));
+        when(categoryRepository.count()).thenAnswer(invocation -> (long) categories.size());
+        when(categoryRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(categories));
+        when(categoryRepository.findById(anyLong())).thenAnswer(invocation -> categories.stream()
+                .filter(category -> category.getId().equals(invocation.getArgument(0))).findFirst());
+        categoryCache = new CategoryCache(categoryRepository, 10, 60000, meterRegistry, clock);
+    }
+
+    @Test
+    void lookupsAreServedFromOneSnapshot() {
+        assertEquals("Điện tử", categoryCache.get(1L).orElseThrow().getName());
+        assertEquals("Sách", categoryCache.get(2L).orElseThrow().getName());
+        assertEquals(2, categoryCache.getAll().size());
+
+        verify(categoryRepository, times(1)).findAll();
+        verify(categoryRepository, never()).findById(anyLong());
+        assertEquals(3, count("hit"));
+        assertEquals(0, count("miss"));
+        assertEquals(1, count("load"));
+    }
+
+    @Test
+    void unknownIdIsCheckedInDatabase() {
+        categoryCache.get(1L);
+
+        assertFalse(categoryCache.get(9L).isPresent());
+        assertEquals(1, count("miss"));
+
+        // Category tạo trên instance khác: tìm thấy ngay, snapshot được đọc lại ở lần sau
+        categories.add(category(3L, "Đồ chơi"));
+        assertEquals("Đồ chơi", categoryCache.get(3L).orElseThrow().getName());
+        assertEquals(3, categoryCache.getAll().size());
+        verify(categoryRepository, times(2)).findAll();
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        categoryCache.getAll();
+        categories.remove(1);
+
+        categoryCache.onCategoryChanged(new CategoryChangedEvent(2L, null, ChangeType.DELETED));
+
+        assertEquals(1, categoryCache.getAll().size());
+        assertEquals(2, count("load"));
+    }
+
+    @Test
+    void snapshotExpiresAfterTtl() {
+        categoryCache.getAll();
+
+        clock.advance(Duration.ofMillis(59999));
+        categoryCache.getAll();
+        assertEquals(1, count("load"));
+
+        clock.advance(Duration.ofMillis(1));
+        categoryCache.getAll();
+        assertEquals(2, count("load"));
+    }
+
+    @Test
+    void tableLargerThanMaxSizeIsNeverLoadedWhole() {
+        for (long id = 3; id <= 11; id++) {
+            categories.add(category(id, "Loại " + id));
+        }
+
+        assertEquals("Sách", categoryCache.get(2L).orElseThrow().getName());
+        assertEquals("Loại 11", categoryCache.get(11L).orElseThrow().getName());
+        assertFalse(categoryCache.get(12L).isPresent());
+
+        // Lookup theo id đi thẳng findById, không đọc cả bảng
+        verify(categoryRepository, never()).findAll();
+        verify(categoryRepository, times(3)).findById(anyLong());
+        verify(categoryRepository, times(1)).count();
+        assertEquals(11, categoryCache.getAll().size());
+    }
+
+    @Test
+    void writeDuringLoadIsNotPublished() {
+        // Ghi xen vào giữa lúc đang load: kết quả vẫn trả cho caller nhưng không được giữ lại
+        when(categoryRepository.findAll()).thenAnswer(invocation -> {
+            List<Category> loaded = new ArrayList<>(categories);
+            categories.add(category(3L, "Đồ chơi"));
+            categoryCache.invalidate();
+            return loaded;
+        }).thenAnswer(invocation -> new ArrayList<>(categories));
+
+        assertEquals(2, categoryCache.getAll().size());
+        assertEquals(3, categoryCache.getAll().size());
+        assertEquals(3, categoryCache.getAll().size());
+        assertEquals(2, count("load"));
+    }
+
+    @Test
+    void nullIdIsNeverLookedUp() {
+        assertTrue(categoryCache.get(null).isEmpty());
+        verify(categoryRepository, never()).count();
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("cache.category", "result", result).count();
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category(name);
+        category.setId(id);
+        return category;
+    }
+}
@@ -0,0 +1,137 @@
+package com.flogin.service;
+
+import com.flogin.dto.product.ProductBatchItemRequestDTO;
+import com.flogin.dto.product.ProductBatchItemResultDTO;
+import com.flogin.entity.Category;
+import com.flogin.mapper.CategoryMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductBatchServiceTest {
+    JdbcTemplate jdbcTemplate;
+    ApplicationEventPublisher eventPublisher;
+    ProductBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:product-batch;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS categories");
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                + "price DECIMAL(38, 2) NOT NULL, quantity INT NOT NULL, description VARCHAR(255), "
+                + "category_id BIGINT NOT NULL REFERENCES categories (id))");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Điện tử')");
+
+        CategoryCache categoryCache = mock(CategoryCache.class);
+        Category category = new Category("Điện tử");
+        category.setId(1L);
+        // Category 2 còn trong cache nhưng đã bị xoá khỏi DB: INSERT vi phạm khoá ngoại
+        Category deleted = new Category("Đã xoá");
+        deleted.setId(2L);
+        when(categoryCache.get(any())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            return id == null ? Optional.empty() : Optional.ofNullable(id == 1L ? category : id == 2L ? deleted : null);
+        });
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new ProductBatchService(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                Validation.buildDefaultValidatorFactory().getValidator(), categoryCache, mock(CategoryMapper.class),
+                eventPublisher);
+        ReflectionTestUtils.setField(service, "maxItems", 10);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+    }
+
+    @Test
+    void reportsResultPerItemAndPublishesOnlySavedItems() {
+        jdbcTemplate.update("INSERT INTO products (id, name, price, quantity, description, category_id) "
+                + "VALUES (100, 'Laptop cũ', 1000, 1, '', 1)");
+        ProductBatchItemRequestDTO invalid = item(null, "Laptop", 1L);
+        invalid.setPrice(null);
+
+        List<ProductBatchItemResultDTO> results = service.saveAll(List.of(
+                item(null, "Laptop Dell", 1L),
+                item(100L, "Laptop mới", 1L),
+                item(999L, "Không có", 1L),
+                invalid,
+                item(null, "Sai category", 7L)));
+
+        assertEquals(List.of("CREATED", "UPDATED", "FAILED", "FAILED", "FAILED"),
+                results.stream().map(ProductBatchItemResultDTO::getStatus).toList());
+        assertNotNull(results.get(0).getId());
+        assertEquals("Product không tồn tại", results.get(2).getMessage());
+        assertEquals("Giá không được để trống", results.get(3).getMessage());
+        assertEquals("Category không tồn tại", results.get(4).getMessage());
+        assertEquals("Laptop mới", jdbcTemplate.queryForObject("SELECT name FROM products WHERE id = 100", String.class));
+        verify(eventPublisher, times(2)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void databaseErrorFailsOnlyItsChunkWithoutLeakingDetails() {
+        List<ProductBatchItemResultDTO> results = service.saveAll(List.of(
+                item(null, "Chuột", 1L),
+                item(null, "Bàn phím", 1L),
+                item(null, "Màn hình", 2L),
+                item(null, "Loa", 1L),
+                item(null, "Tai nghe", 1L)));
+
+        assertEquals(List.of("CREATED", "CREATED", "FAILED", "FAILED", "CREATED"),
+                results.stream().map(ProductBatchItemResultDTO::getStatus).toList());
+        for (int index : List.of(2, 3)) {
+            String message = results.get(index).getMessage();
+            assertEquals("Không lưu được sản phẩm, vui lòng thử lại", message);
+            assertFalse(message.toUpperCase().contains("CONSTRAINT"));
+        }
+        // Chunk lỗi được rollback cả chunk, các chunk khác vẫn được lưu
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+        verify(eventPublisher, times(3)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() {
+        List<ProductBatchItemRequestDTO> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(item(null, "Sản phẩm " + i, 1L));
+        }
+
+        assertEquals("Danh sách sản phẩm trống",
+                assertThrows(RuntimeException.class, () -> service.saveAll(List.of())).getMessage());
+        assertEquals("Tối đa 10 sản phẩm mỗi lần",
+                assertThrows(RuntimeException.class, () -> service.saveAll(tooMany)).getMessage());
+    }
+
+    private static ProductBatchItemRequestDTO item(Long id, String name, Long categoryId) {
+        ProductBatchItemRequestDTO item = new ProductBatchItemRequestDTO();
+        item.setId(id);
+        item.setProductName(name);
+        item.setPrice(new BigDecimal("100"));
+        item.setQuantity(5);
+        item.setDescription("");
+        item.setCategory_id(categoryId);
+        return item;
+    }
+}
@@ -0,0 +1,104 @@
+package com.flogin.service;
+
+import com.flogin.entity.Category;
+import com.flogin.entity.Product;
+import com.flogin.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ProductCursorTest {
+    private static final int PRODUCT_COUNT = 23;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @BeforeEach
+    void setUp() {
+        Category category = testEntityManager.persist(new Category("Điện tử"));
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            // Giá và số lượng trùng nhau nhiều để phải phân biệt bằng id; tên có cả dấu ':'
+            BigDecimal price = BigDecimal.valueOf(10L * (i % 4));
+            testEntityManager.persist(new Product("Áo: mẫu " + (char) ('A' + i % 5) + i, price, i % 3, "", category));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void pagingByPriceDescVisitsEveryProductOnceInOrder() {
+        List<Product> products = walk("price,desc", 5);
+
+        assertEveryProductOnce(products);
+        assertOrdered(products, Comparator.comparing(Product::getPrice).reversed());
+    }
+
+    @Test
+    void pagingByNameAndQuantityVisitsEveryProductOnceInOrder() {
+        List<Product> byName = walk("name,asc", 4);
+        List<Product> byQuantity = walk("quantity,desc", 7);
+
+        assertEveryProductOnce(byName);
+        assertOrdered(byName, Comparator.comparing(Product::getName));
+        assertEveryProductOnce(byQuantity);
+        assertOrdered(byQuantity, Comparator.comparingInt(Product::getQuantity).reversed());
+    }
+
+    @Test
+    void cursorIsRejectedForAnotherSort() {
+        Sort ascending = ProductCursor.parseSort("price,asc");
+        Window<Product> first = productRepository.findAllBy(ProductCursor.decode(null, ascending), ascending, Limit.of(5));
+        String cursor = ProductCursor.encode(first.getContent().get(4), ascending);
+
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode(cursor, ProductCursor.parseSort("price,desc")));
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode(cursor, ProductCursor.parseSort("name,asc")));
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode("không-phải-cursor", ascending));
+    }
+
+    private List<Product> walk(String sortParam, int size) {
+        Sort sort = ProductCursor.parseSort(sortParam);
+        List<Product> products = new ArrayList<>();
+        String cursor = null;
+        do {
+            Window<Product> window = productRepository.findAllBy(ProductCursor.decode(cursor, sort), sort, Limit.of(size));
+            products.addAll(window.getContent());
+            cursor = window.hasNext() && !window.isEmpty()
+                    ? ProductCursor.encode(window.getContent().get(window.size() - 1), sort)
+                    : null;
+        } while (cursor != null);
+        return products;
+    }
+
+    private static void assertEveryProductOnce(List<Product> products) {
+        assertEquals(PRODUCT_COUNT, products.size());
+        assertEquals(PRODUCT_COUNT, new HashSet<>(products.stream().map(Product::getId).toList()).size());
+    }
+
+    private static void assertOrdered(List<Product> products, Comparator<Product> order) {
+        for (int i = 1; i < products.size(); i++) {
+            assertTrue(order.compare(products.get(i - 1), products.get(i)) <= 0,
+                    "Sai thứ tự ở vị trí " + i);
+        }
+    }
+}
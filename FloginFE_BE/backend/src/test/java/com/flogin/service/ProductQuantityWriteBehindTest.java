@@ -0,0 +1,131 @@
+package com.flogin.service;
+
+import com.flogin.Config.InsufficientStockException;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.entity.Category;
+import com.flogin.entity.Product;
+import com.flogin.mapper.ProductMapper;
+import com.flogin.repository.CategoryRepository;
+import com.flogin.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.docker.compose.enabled=false",
+        "app.product-cache.enabled=false",
+        "app.write-behind.enabled=true",
+        // Chỉ flush khi test gọi flush()
+        "app.write-behind.flush-interval-ms=3600000",
+        "app.write-behind.max-pending-deltas=1000000"
+})
+class ProductQuantityWriteBehindTest {
+    @Autowired
+    ProductQuantityWriteBehind writeBehind;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ProductMapper productMapper;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    Long id;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        Category category = categoryRepository.save(new Category("Flash sale"));
+        id = productRepository.save(new Product("Hot", BigDecimal.ONE, 1000, "", category)).getId();
+    }
+
+    @Test
+    void concurrentDeltasAreCoalescedIntoOneRowWrite() throws Exception {
+        double rowsBefore = meterRegistry.counter("product.writebehind.rows").count();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<ProductResponseDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int delta = i % 2 == 0 ? -3 : 1;
+            results.add(executor.submit(() -> writeBehind.adjust(id, delta)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        for (Future<ProductResponseDTO> result : results) {
+            assertNull(result.get());
+        }
+        assertEquals(1000, productRepository.findById(id).orElseThrow().getQuantity());
+
+        writeBehind.flush();
+
+        assertEquals(1000 - 200 * 3 + 200, productRepository.findById(id).orElseThrow().getQuantity());
+        assertEquals(1, meterRegistry.counter("product.writebehind.rows").count() - rowsBefore);
+    }
+
+    @Test
+    void flushDropsDeltaThatWouldLeaveQuantityOutOfRange() {
+        double rejectedBefore = meterRegistry.counter("product.writebehind.rejected").count();
+        writeBehind.adjust(id, -600);
+        writeBehind.adjust(id, -600);
+
+        writeBehind.flush();
+
+        assertEquals(1000, productRepository.findById(id).orElseThrow().getQuantity());
+        assertEquals(1, meterRegistry.counter("product.writebehind.rejected").count() - rejectedBefore);
+    }
+
+    @Test
+    void bufferedDeltaForMissingProductIsRejectedImmediately() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> writeBehind.adjust(id + 1000, 1));
+
+        assertEquals("Product không tồn tại", e.getMessage());
+    }
+
+    @Test
+    void writeThroughKeepsQuantityWithinBounds() {
+        ProductQuantityWriteBehind writeThrough = new ProductQuantityWriteBehind(jdbcTemplate, transactionTemplate,
+                productRepository, productMapper, eventPublisher, false, 200, 1000, 1, 1, new SimpleMeterRegistry());
+
+        assertThrows(InsufficientStockException.class, () -> writeThrough.adjust(id, -1001));
+        assertThrows(RuntimeException.class, () -> writeThrough.adjust(id, 99000));
+        assertEquals(0, writeThrough.adjust(id, -1000).getQuantity());
+    }
+}
@@ -0,0 +1,95 @@
+package com.flogin.service;
+
+import com.flogin.dto.category.CategoryResponseDTO;
+import com.flogin.dto.product.ProductResponseDTO;
+import com.flogin.dto.product.ProductSearchResponseDTO;
+import com.flogin.entity.Product;
+import com.flogin.mapper.ProductMapper;
+import com.flogin.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+    ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null, null, null, mock(TransactionTemplate.class), 20, 100, 0);
+        index.onProductChanged(changed(1L, "Laptop Dell", "Máy tính xách tay", "Điện tử", "1500", 5));
+        index.onProductChanged(changed(2L, "Laptop Asus", "Máy tính gaming", "Điện tử", "2000", 0));
+        index.onProductChanged(changed(3L, "Áo thun", "Áo cotton", "Thời trang", "10", 50));
+    }
+
+    @Test
+    void searchMatchesAllTermsIgnoringAccents() {
+        ProductSearchResponseDTO result = index.search("may tinh laptop", null, null, null, null, null, null);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(1L, 2L), result.getItems().stream().map(ProductResponseDTO::getId).toList());
+    }
+
+    @Test
+    void facetsIgnoreCategoryFilterAndRangesApply() {
+        ProductSearchResponseDTO result = index.search(null, "Thời trang", null, new BigDecimal("1800"), 1, null, null);
+
+        assertEquals(1, result.getTotal());
+        assertEquals(3L, result.getItems().get(0).getId());
+        assertEquals(Map.of("Điện tử", 1L, "Thời trang", 1L), result.getCategoryFacets());
+    }
+
+    @Test
+    void updatesAndDeletesAreReflected() {
+        index.onProductChanged(changed(1L, "Chuột Logitech", "Không dây", "Điện tử", "20", 3));
+        index.onProductChanged(new ProductChangedEvent(3L, null));
+
+        assertEquals(1, index.search("laptop", null, null, null, null, null, null).getTotal());
+        assertEquals(1, index.search("chuot", null, null, null, null, null, null).getTotal());
+        assertEquals(0, index.search("ao", null, null, null, null, null, null).getTotal());
+    }
+
+    @Test
+    void failedRebuildKeepsCurrentIndexAndDoesNotThrow() {
+        // TransactionTemplate không có transaction manager nên việc đọc DB thất bại
+        index.rebuild();
+
+        assertEquals(2, index.search("laptop", null, null, null, null, null, null).getTotal());
+    }
+
+    @Test
+    void rebuildPicksUpChangesMadeOnOtherReplicas() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ProductMapper productMapper = mock(ProductMapper.class);
+        Product remote = new Product("Bàn phím cơ", BigDecimal.TEN, 7, "", null);
+        remote.setId(9L);
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(remote));
+        when(productMapper.toProductResponseDTO(remote)).thenReturn(new ProductResponseDTO(9L, "Bàn phím cơ",
+                BigDecimal.TEN, 7, "", new CategoryResponseDTO("Điện tử")));
+        ProductSearchIndex synced = new ProductSearchIndex(productRepository, productMapper, mock(EntityManager.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 20, 100, 0);
+        synced.onProductChanged(changed(1L, "Laptop Dell", "Máy tính xách tay", "Điện tử", "1500", 5));
+
+        synced.rebuild();
+
+        // Product 1 đã bị xoá ở replica khác (không còn trong DB), product 9 được tạo ở đó
+        assertEquals(0, synced.search("laptop", null, null, null, null, null, null).getTotal());
+        assertEquals(1, synced.search("ban phim", null, null, null, null, null, null).getTotal());
+    }
+
+    private static ProductChangedEvent changed(Long id, String name, String description, String category,
+                                               String price, int quantity) {
+        return new ProductChangedEvent(id, new ProductResponseDTO(id, name, new BigDecimal(price), quantity,
+                description, new CategoryResponseDTO(category)));
+    }
+}
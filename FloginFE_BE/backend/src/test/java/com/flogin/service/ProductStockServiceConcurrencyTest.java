@@ -0,0 +1,124 @@
+package com.flogin.service;
+
+import com.flogin.Config.InsufficientStockException;
+import com.flogin.dto.product.StockReservationItemDTO;
+import com.flogin.entity.Category;
+import com.flogin.entity.Product;
+import com.flogin.repository.CategoryRepository;
+import com.flogin.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.docker.compose.enabled=false",
+        "app.product-cache.enabled=false"
+})
+class ProductStockServiceConcurrencyTest {
+    private static final int HOT_SKUS = 3;
+    private static final int INITIAL_STOCK = 500;
+    private static final int THREADS = 32;
+    private static final int RESERVATIONS_PER_THREAD = 40;
+
+    @Autowired
+    ProductStockService productStockService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        Category category = categoryRepository.save(new Category("Hot"));
+        ids = new ArrayList<>();
+        for (int i = 0; i < HOT_SKUS; i++) {
+            ids.add(productRepository.save(new Product("Hot " + i, BigDecimal.ONE, INITIAL_STOCK, "", category)).getId());
+        }
+    }
+
+    @Test
+    void concurrentReservationsNeverLoseOrOversellStock() throws Exception {
+        AtomicInteger[] reserved = new AtomicInteger[HOT_SKUS];
+        for (int i = 0; i < HOT_SKUS; i++) {
+            reserved[i] = new AtomicInteger();
+        }
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int r = 0; r < RESERVATIONS_PER_THREAD; r++) {
+                    // Giữ hai SKU mỗi lần, thứ tự ngẫu nhiên
+                    int first = random.nextInt(HOT_SKUS);
+                    int second = (first + 1 + random.nextInt(HOT_SKUS - 1)) % HOT_SKUS;
+                    int firstQuantity = 1 + random.nextInt(3);
+                    int secondQuantity = 1 + random.nextInt(3);
+                    try {
+                        productStockService.reserve(List.of(
+                                new StockReservationItemDTO(ids.get(second), secondQuantity),
+                                new StockReservationItemDTO(ids.get(first), firstQuantity)));
+                        reserved[first].addAndGet(firstQuantity);
+                        reserved[second].addAndGet(secondQuantity);
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected errors: " + errors);
+        // Tổng yêu cầu (~32*40*2*2) vượt xa tồn kho nên phải có request bị từ chối
+        assertTrue(rejected.get() > 0);
+        for (int i = 0; i < HOT_SKUS; i++) {
+            int quantity = productRepository.findById(ids.get(i)).orElseThrow().getQuantity();
+            assertEquals(INITIAL_STOCK - reserved[i].get(), quantity);
+            assertTrue(quantity >= 0);
+        }
+    }
+
+    @Test
+    void reservationIsAllOrNothing() {
+        assertThrows(InsufficientStockException.class, () -> productStockService.reserve(List.of(
+                new StockReservationItemDTO(ids.get(0), 5),
+                new StockReservationItemDTO(ids.get(1), INITIAL_STOCK + 1))));
+
+        assertEquals(INITIAL_STOCK, productRepository.findById(ids.get(0)).orElseThrow().getQuantity());
+        assertEquals(INITIAL_STOCK, productRepository.findById(ids.get(1)).orElseThrow().getQuantity());
+    }
+}
@@ -0,0 +1,66 @@
+package com.flogin.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SseEmitter ghi lại event đã gửi dưới dạng "id name" (bỏ comment ping), không cần servlet response.
+ */
+class RecordingEmitter extends SseEmitter {
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+    private final CountDownLatch release;
+    // Mở khi lần gửi đầu tiên bắt đầu
+    final CountDownLatch sending = new CountDownLatch(1);
+
+    RecordingEmitter() {
+        this(new CountDownLatch(0));
+    }
+
+    // Lần gửi đầu tiên chờ tới khi latch mở, giả lập client chậm
+    RecordingEmitter(CountDownLatch release) {
+        this.release = release;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) {
+        sending.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        StringBuilder text = new StringBuilder();
+        for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+            text.append(part.getData());
+        }
+        String id = null;
+        String name = null;
+        for (String line : text.toString().split("\n")) {
+            if (line.startsWith("id:")) {
+                id = line.substring(3);
+            } else if (line.startsWith("event:")) {
+                name = line.substring(6);
+            }
+        }
+        if (name != null) {
+            sent.add(id + " " + name);
+        }
+    }
+
+    String next() throws InterruptedException {
+        String event = sent.poll(5, TimeUnit.SECONDS);
+        if (event == null) {
+            throw new AssertionError("Không nhận được event trong 5 giây");
+        }
+        return event;
+    }
+
+    String poll() throws InterruptedException {
+        return sent.poll(200, TimeUnit.MILLISECONDS);
+    }
+}
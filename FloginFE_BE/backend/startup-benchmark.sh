@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Đo time-to-first-200 của /actuator/health: khởi động thường (java -jar) so với AOT + CDS (profile fast).
+# Dùng H2 của profile loadtest nên không cần MySQL. Kết quả in ra và ghi vào target/startup-benchmark.txt.
+# Dùng: RUNS=10 ./startup-benchmark.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+RUNS="${RUNS:-5}"
+PORT="${PORT:-18080}"
+export SEED_PRODUCTS=0 SEED_CATEGORIES=0
+
+./mvnw -q -Ploadtest,fast-startup -DskipTests package
+JAR="$(ls target/*.jar | grep -v original | head -1)"
+CDS_JAR="target/cds/$(basename "$JAR")"
+REPORT=target/startup-benchmark.txt
+: > "$REPORT"
+
+now_ms() {
+  date +%s%3N
+}
+
+measure() {
+  local name="$1"
+  shift
+  local times=()
+  for run in $(seq 1 "$RUNS"); do
+    local start
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > "target/startup-$name.log" 2>&1 &
+    local pid=$!
+    until curl -fs -o /dev/null "http://localhost:$PORT/actuator/health"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$name: application exited, see target/startup-$name.log" >&2
+        exit 1
+      fi
+      sleep 0.02
+    done
+    times+=($(( $(now_ms) - start )))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+  done
+  local median
+  median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }')
+  echo "$name: median ${median} ms (runs: ${times[*]})" | tee -a "$REPORT"
+}
+
+measure baseline java -jar "$JAR" --spring.profiles.active=loadtest
+measure aot-cds java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true \
+  -jar "$CDS_JAR" --spring.profiles.active=fast,loadtest
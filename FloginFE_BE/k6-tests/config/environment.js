@@ -0,0 +1,29 @@
+import http from 'k6/http';
+
+export const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const CREDENTIALS = {
+    username: __ENV.K6_USERNAME || 'admin123',
+    password: __ENV.K6_PASSWORD || 'admin123',
+};
+
+// Đăng nhập một lần trong setup() rồi dùng lại token cho mọi iteration,
+// để BCrypt của /auth/login không lấn át kết quả đo các API khác
+export function loginOnce() {
+    const res = http.post(`${BASE_URL}/auth/login`, JSON.stringify(CREDENTIALS), {
+        headers: { 'Content-Type': 'application/json' },
+    });
+    if (res.status !== 200) {
+        throw new Error(`Login failed (${res.status}): ${res.body}`);
+    }
+    return res.json('accessToken');
+}
+
+export function authHeaders(token) {
+    return {
+        headers: {
+            Authorization: `Bearer ${token}`,
+            'Content-Type': 'application/json',
+        },
+    };
+}
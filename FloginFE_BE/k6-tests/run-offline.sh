@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Load test offline: boot backend với H2 + catalog sinh sẵn, chạy k6, ghi báo cáo JSON vào k6-tests/results.
+# Dùng: SEED_PRODUCTS=100000 RATE=300 DURATION=2m ./run-offline.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+K6_DIR="$(pwd)"
+BACKEND_DIR="$K6_DIR/../backend"
+export SEED_PRODUCTS="${SEED_PRODUCTS:-10000}"
+export SEED_CATEGORIES="${SEED_CATEGORIES:-50}"
+export GIT_SHA="${GIT_SHA:-$(git rev-parse --short HEAD 2>/dev/null || echo unknown)}"
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+mkdir -p "$K6_DIR/results"
+
+(cd "$BACKEND_DIR" && ./mvnw -q -Ploadtest -DskipTests package)
+JAR="$(ls "$BACKEND_DIR"/target/*.jar | grep -v original | head -1)"
+java -jar "$JAR" --spring.profiles.active=loadtest > "$K6_DIR/results/backend.log" 2>&1 &
+APP_PID=$!
+trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+for _ in $(seq 1 120); do
+  if curl -fs "$BASE_URL/actuator/health/readiness" > /dev/null; then
+    break
+  fi
+  sleep 1
+done
+
+k6 run -e BASE_URL="$BASE_URL" -e SEED_PRODUCTS="$SEED_PRODUCTS" -e GIT_SHA="$GIT_SHA" \
+  -e REPORT_FILE="results/offline-load-$GIT_SHA.json" scripts/offline-load-tests.js
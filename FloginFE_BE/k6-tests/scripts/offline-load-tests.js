@@ -0,0 +1,63 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { BASE_URL, loginOnce, authHeaders } from '../config/environment.js';
+
+const SEED_PRODUCTS = Number(__ENV.SEED_PRODUCTS || 10000);
+const REPORT_FILE = __ENV.REPORT_FILE || 'results/offline-load-report.json';
+
+export const options = {
+    scenarios: {
+        catalog: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 200),      // request/giây
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'min', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    return { token: loginOnce() };
+}
+
+export default function (data) {
+    const params = authHeaders(data.token);
+    const id = 1 + Math.floor(Math.random() * SEED_PRODUCTS);
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/products/page?size=50`, null, { ...params, tags: { endpoint: 'page' } }],
+        ['GET', `${BASE_URL}/products/${id}`, null, { ...params, tags: { endpoint: 'product' } }],
+        ['GET', `${BASE_URL}/categories`, null, { ...params, tags: { endpoint: 'categories' } }],
+    ]);
+    responses.forEach((res) => check(res, { 'status 200': (r) => r.status === 200 }));
+}
+
+// Báo cáo JSON gọn (latency + throughput) để so sánh giữa các commit
+export function handleSummary(data) {
+    const duration = data.metrics.http_req_duration.values;
+    const report = {
+        commit: __ENV.GIT_SHA || 'unknown',
+        seedProducts: SEED_PRODUCTS,
+        timestamp: new Date().toISOString(),
+        requests: data.metrics.http_reqs.values.count,
+        throughputPerSec: data.metrics.http_reqs.values.rate,
+        failedRate: data.metrics.http_req_failed.values.rate,
+        latencyMs: {
+            avg: duration.avg,
+            p50: duration.med,
+            p90: duration['p(90)'],
+            p95: duration['p(95)'],
+            p99: duration['p(99)'],
+            max: duration.max,
+        },
+    };
+    return {
+        [REPORT_FILE]: JSON.stringify(report, null, 2),
+        stdout: JSON.stringify(report, null, 2) + '\n',
+    };
+}
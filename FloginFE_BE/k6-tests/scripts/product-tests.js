@@ -1,40 +1,19 @@
 import http from 'k6/http';
 import { sleep, check } from 'k6';
-const BASE_URL = 'http://localhost:8080';
+import { BASE_URL, loginOnce, authHeaders } from '../config/environment.js';
 
 export const options = {
     vus: 100,          // số user đồng thời
     duration: '60s',   // chạy 60s
 };
 
-export default function () {
-    const loginPayloads = JSON.stringify({
-        username: "admin123",
-        password: "admin123"
-    })
-    const loginHeaders = {
-        headers: {
-            'Content-type': 'application/json',
-        }
-    }
-    const loginRes = http.post(`${BASE_URL}/auth/login`, loginPayloads, loginHeaders )
-    check(loginRes, {
-        'login status is 200': (r) => r.status === 200,
-        'receive token': (r) => r.json('accessToken') !== undefined
-    })
+// Login một lần, token dùng lại cho mọi iteration
+export function setup() {
+    return { token: loginOnce() };
+}
 
-    if (loginRes.status !== 200) {
-        console.log('Login failed:', loginRes.body);
-        return;
-    }
-    const token = loginRes.json('accessToken');
-    const productHeaders = {
-        headers: {
-            Authorization: `Bearer ${token}`,
-            'Content-Type': 'application/json'
-        }
-    }
-    const productRes = http.get(`${BASE_URL}/products`, productHeaders);
+export default function (data) {
+    const productRes = http.get(`${BASE_URL}/products`, authHeaders(data.token));
     check(productRes, {
         'products status is 200': (r) => r.status === 200,
         'response time < 500ms': (r) => r.timings.duration < 500,
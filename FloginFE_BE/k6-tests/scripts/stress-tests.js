@@ -1,7 +1,6 @@
 import http from 'k6/http';
 import { check, sleep } from 'k6';
-
-const BASE_URL = 'http://localhost:8080';
+import { BASE_URL, loginOnce, authHeaders } from '../config/environment.js';
 
 export const options = {
     stages: [
@@ -17,32 +16,17 @@ export const options = {
     },
 };
 
-export default function () {
-    const payload = JSON.stringify({
-        username: "admin123",
-        password: "admin123"
-    });
-
-    const login = http.post(`${BASE_URL}/auth/login`, payload, {
-        headers: { 'Content-Type': 'application/json' }
-    });
-
-    if (login.status !== 200) {
-        sleep(0.5);
-        return;
-    }
+// Login một lần, token dùng lại cho mọi iteration
+export function setup() {
+    return { token: loginOnce() };
+}
 
-    const token = login.json('accessToken');
-    const res = http.get(`${BASE_URL}/products`, {
-        headers: {
-            Authorization: `Bearer ${token}`,
-            'Content-Type': 'application/json'
-        }
-    });
+export default function (data) {
+    const res = http.get(`${BASE_URL}/products`, authHeaders(data.token));
 
     check(res, {
         'status 200': (r) => r.status === 200,
     });
 
     sleep(0.5); // Giảm sleep time
-}
\ No newline at end of file
+}